@@ -7,16 +7,30 @@ import edu.study.api.impl.OpenAIChatClient;
 import edu.study.api.impl.RuleBasedAssistantAPI;
 import edu.study.api.impl.RuleChatClient;
 import edu.study.controller.TaskController;
+import edu.study.repository.BinaryDataRepository;
+import edu.study.repository.DataRepository;
 import edu.study.repository.FileTaskRepository;
 import edu.study.repository.JsonDataRepository;
+import edu.study.repository.MappedTaskRepository;
+import edu.study.repository.RollupRepository;
+import edu.study.repository.SnapshotConverter;
+import edu.study.repository.StorageMarker;
+import edu.study.repository.TaskJournal;
 import edu.study.repository.TaskRepository;
+import edu.study.service.AnalyticsCounters;
 import edu.study.service.AnalyticsService;
+import edu.study.service.EstimationTracker;
+import edu.study.service.PersistenceExecutor;
+import edu.study.service.ProductivityRollups;
 import edu.study.service.SchedulingService;
+import edu.study.service.TaskColumns;
 import edu.study.service.TaskService;
 import edu.study.ui.SmartTaskWidget;
 import edu.study.util.FileUtil;
 import io.github.cdimascio.dotenv.Dotenv;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Optional;
 import javafx.application.Application;
 import javafx.scene.Scene;
@@ -27,10 +41,15 @@ public class App extends Application {
     public void start(Stage stage) {
         Path storagePath = FileUtil.defaultStoragePath();
         FileUtil.ensureFile(storagePath);
-        JsonDataRepository jsonRepo = new JsonDataRepository(storagePath);
-        TaskRepository taskRepository = new FileTaskRepository(jsonRepo);
-        TaskService taskService = new TaskService(taskRepository, new SchedulingService());
-        AnalyticsService analyticsService = new AnalyticsService();
+        StorageMarker marker = storageMarker();
+        TaskRepository taskRepository = buildRepository(buildDataRepository(storagePath, marker), marker);
+        PersistenceExecutor persistence = new PersistenceExecutor(taskRepository, 256);
+        TaskService taskService = new TaskService(taskRepository, new SchedulingService(), persistence);
+        EstimationTracker estimation = EstimationTracker.attach(taskService);
+        AnalyticsService analyticsService = new AnalyticsService(TaskColumns.attach(taskService),
+                AnalyticsCounters.attach(taskService, estimation),
+                ProductivityRollups.attach(taskService, new RollupRepository(FileUtil.defaultRollupPath()), persistence),
+                estimation);
         TaskController taskController = new TaskController(taskService, analyticsService);
         AssistantAPI assistantAPI = buildAssistant(taskService);
         ChatClient chatClient = buildChatClient();
@@ -51,6 +70,92 @@ public class App extends Application {
         launch();
     }
 
+    private Duration commitWindow() {
+        Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
+        String value = firstNonBlank(dotenv.get("COMMIT_WINDOW_MS"), System.getenv("COMMIT_WINDOW_MS"));
+        try {
+            return Duration.ofMillis(value != null ? Long.parseLong(value.trim()) : 200);
+        } catch (NumberFormatException e) {
+            return Duration.ofMillis(200);
+        }
+    }
+
+    private String storageFormat() {
+        Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
+        String format = firstNonBlank(dotenv.get("STORAGE_FORMAT"), System.getenv("STORAGE_FORMAT"));
+        return "binary".equalsIgnoreCase(format) ? StorageMarker.BINARY : StorageMarker.JSON;
+    }
+
+    private String storageMode() {
+        Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
+        String mode = firstNonBlank(dotenv.get("STORAGE_MODE"), System.getenv("STORAGE_MODE"));
+        return mode != null ? mode.trim().toLowerCase() : "";
+    }
+
+    /**
+     * Without a marker yet, trust the files the configured mode used to pick up, as earlier versions did.
+     */
+    private StorageMarker storageMarker() {
+        boolean binary = StorageMarker.BINARY.equals(storageFormat())
+                && Files.exists(FileUtil.defaultBinaryStoragePath());
+        boolean records = "mmap".equals(storageMode()) && Files.exists(FileUtil.defaultRecordStorePath());
+        return new StorageMarker(FileUtil.defaultStorageMarkerPath(),
+                binary ? StorageMarker.BINARY : StorageMarker.JSON, records);
+    }
+
+    /**
+     * Converts the snapshot when the configured format differs from the one last written, in either direction.
+     */
+    private DataRepository buildDataRepository(Path storagePath, StorageMarker marker) {
+        String format = storageFormat();
+        Path binaryPath = FileUtil.defaultBinaryStoragePath();
+        if (!format.equals(marker.getFormat())) {
+            if (StorageMarker.BINARY.equals(format)) {
+                SnapshotConverter.jsonToBinary(storagePath, binaryPath);
+            } else {
+                SnapshotConverter.binaryToJson(binaryPath, storagePath);
+            }
+            marker.setFormat(format);
+            marker.save();
+        }
+        if (StorageMarker.BINARY.equals(format)) {
+            return new BinaryDataRepository(binaryPath, commitWindow());
+        }
+        return new JsonDataRepository(storagePath, commitWindow());
+    }
+
+    /**
+     * Moves the tasks into or out of the record store when switching to or from mmap mode. A journal left by an
+     * earlier journaled run is folded into the snapshot first by every mode but journal, which replays it itself.
+     * Only journal and mmap modes write changed tasks alone; the default snapshot mode rewrites the snapshot per
+     * (grouped) change, and is kept as the default because it loads the completed history in the background.
+     */
+    private TaskRepository buildRepository(DataRepository dataRepo, StorageMarker marker) {
+        String mode = storageMode();
+        TaskJournal journal = new TaskJournal(FileUtil.defaultJournalPath());
+        if (marker.isTasksInRecords() && !"mmap".equals(mode)) {
+            SnapshotConverter.recordsToSnapshot(
+                    new MappedTaskRepository(FileUtil.defaultRecordStorePath(), FileUtil.defaultStringHeapPath()),
+                    dataRepo);
+            marker.setTasksInRecords(false);
+            marker.save();
+        }
+        if ("journal".equals(mode)) {
+            return new FileTaskRepository(dataRepo, journal);
+        }
+        SnapshotConverter.foldJournal(dataRepo, journal);
+        if ("mmap".equals(mode)) {
+            MappedTaskRepository mapped = new MappedTaskRepository(FileUtil.defaultRecordStorePath(), FileUtil.defaultStringHeapPath());
+            if (!marker.isTasksInRecords()) {
+                SnapshotConverter.snapshotToRecords(dataRepo, mapped);
+                marker.setTasksInRecords(true);
+                marker.save();
+            }
+            return mapped;
+        }
+        return new FileTaskRepository(dataRepo);
+    }
+
     private AssistantAPI buildAssistant(TaskService taskService) {
         Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
         String apiKey = firstNonBlank(dotenv.get("OPENAI_API_KEY"), System.getenv("OPENAI_API_KEY"));
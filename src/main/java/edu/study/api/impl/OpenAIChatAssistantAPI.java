@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.study.api.AssistantAPI;
 import edu.study.model.Priority;
 import edu.study.model.Task;
+import edu.study.model.TaskDraft;
 import edu.study.service.TaskService;
 import edu.study.util.LlmLogger;
 import java.net.URI;
@@ -34,6 +35,8 @@ public class OpenAIChatAssistantAPI implements AssistantAPI {
     private final String model;
     private final RuleBasedAssistantAPI fallback;
     private final boolean debug = true;
+    /** The summary prompt only needs the head of the schedule. */
+    private static final int SUMMARY_TASK_LIMIT = 30;
 
     public OpenAIChatAssistantAPI(TaskService taskService, String apiKey, String baseUrl, String model) {
         this.taskService = taskService;
@@ -49,7 +52,7 @@ public class OpenAIChatAssistantAPI implements AssistantAPI {
 
     @Override
     public String queryTaskSummary() {
-        String prompt = buildSummaryPrompt(taskService.listSortedTasks());
+        String prompt = buildSummaryPrompt(taskService.topTasks(SUMMARY_TASK_LIMIT));
         return callLLM(prompt, 2000).orElseGet(fallback::queryTaskSummary);
     }
 
@@ -168,6 +171,7 @@ public class OpenAIChatAssistantAPI implements AssistantAPI {
     private void parseAndCreateTasks(String jsonText, String fallbackTitle) {
         try {
             List<?> raw = mapper.readValue(jsonText, List.class);
+            List<TaskDraft> drafts = new ArrayList<>();
             for (Object obj : raw) {
                 if (!(obj instanceof Map)) {
                     continue;
@@ -182,8 +186,10 @@ public class OpenAIChatAssistantAPI implements AssistantAPI {
                 if (deadline == null) {
                     deadline = LocalDateTime.now().plusDays(Math.max(days, 0)).withHour(23).withMinute(59);
                 }
-                taskService.addTask(title, description, priority, null, deadline, Duration.ofHours(Math.max(hours, 1)), null);
+                drafts.add(new TaskDraft(title, description, priority, null, deadline, Duration.ofHours(Math.max(hours, 1)), null));
             }
+            // parse everything first so a bad item cannot leave half the tasks created before the fallback runs
+            taskService.addTasks(drafts);
         } catch (Exception e) {
             log("Failed to parse LLM tasks, fallback. err=" + e.getMessage());
             fallback.addTaskFromNaturalLanguage(fallbackTitle);
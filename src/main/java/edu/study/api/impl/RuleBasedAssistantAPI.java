@@ -3,9 +3,11 @@ package edu.study.api.impl;
 import edu.study.api.AssistantAPI;
 import edu.study.model.Priority;
 import edu.study.model.Task;
+import edu.study.model.TaskDraft;
 import edu.study.service.TaskService;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -56,12 +58,14 @@ public class RuleBasedAssistantAPI implements AssistantAPI {
                 .map(String::trim)
                 .filter(s -> !s.isEmpty())
                 .collect(Collectors.toList());
+        List<TaskDraft> drafts = new ArrayList<>(fragments.size());
         for (int i = 0; i < fragments.size(); i++) {
             String phrase = fragments.get(i);
             Priority priority = inferPriority(phrase);
             LocalDateTime deadline = LocalDateTime.now().withHour(23).withMinute(59).plusDays(i + 2);
-            taskService.addTask(phrase, "从自然语言生成的任务", priority, null, deadline, Duration.ofHours(2), null);
+            drafts.add(new TaskDraft(phrase, "从自然语言生成的任务", priority, null, deadline, Duration.ofHours(2), null));
         }
+        taskService.addTasks(drafts);
     }
 
     private Priority inferPriority(String phrase) {
@@ -1,13 +1,23 @@
 package edu.study.controller;
 
 import edu.study.model.Priority;
+import edu.study.model.RollupBucket;
+import edu.study.model.RollupPeriod;
 import edu.study.model.Task;
+import edu.study.model.TaskDraft;
 import edu.study.model.TaskStatus;
 import edu.study.service.AnalyticsService;
+import edu.study.service.CompletionStats;
+import edu.study.service.OverrunStats;
+import edu.study.service.TaskMutation;
 import edu.study.service.TaskService;
+import edu.study.util.LongLongHashMap;
+import java.time.DayOfWeek;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -26,16 +36,32 @@ public class TaskController {
         return taskService.listSortedTasks();
     }
 
+    public List<Task> loadTasks(int offset, int limit) {
+        return taskService.listSortedTasks(offset, limit);
+    }
+
     public Task createTask(String title, String description, Priority priority, LocalDateTime deadline,
                            Duration estimatedTime, String courseId, LocalDateTime startTime) {
         return taskService.addTask(title, description, priority, startTime, deadline, estimatedTime, courseId);
     }
 
+    public List<Task> createTasks(List<TaskDraft> drafts) {
+        return taskService.addTasks(drafts);
+    }
+
+    public List<Task> applyBatch(List<TaskMutation> batch) {
+        return taskService.applyBatch(batch);
+    }
+
     public Optional<Task> editTask(UUID id, String title, String description, Priority priority,
                                    LocalDateTime deadline, Duration estimatedTime, String courseId, LocalDateTime startTime) {
         return taskService.updateTask(id, title, description, priority, startTime, deadline, estimatedTime, courseId);
     }
 
+    public Optional<Task> rescheduleTask(UUID id, LocalDateTime startTime) {
+        return taskService.rescheduleTask(id, startTime);
+    }
+
     public Optional<Task> updateStatus(UUID id, TaskStatus status) {
         return taskService.updateStatus(id, status);
     }
@@ -44,12 +70,66 @@ public class TaskController {
         return taskService.deleteTask(id);
     }
 
+    /**
+     * Completions per day, ordered by day. Boxes every entry; anything that refreshes on a timer or per frame
+     * should hold a map and call dailyStats(LongLongHashMap) instead.
+     */
     public Map<LocalDate, Long> dailyStats() {
-        return analyticsService.completionPerDay(taskService.listTasks());
+        return analyticsService.completionPerDay();
+    }
+
+    /**
+     * Allocation-free form of dailyStats: out is cleared and refilled with epoch day to completions.
+     */
+    public void dailyStats(LongLongHashMap out) {
+        analyticsService.completionHistogram(out);
+    }
+
+    public void completionTimeByPriority(CompletionStats out) {
+        analyticsService.completionTimeByPriority(out);
+    }
+
+    public void completionTimeByCourse(CompletionStats out) {
+        analyticsService.completionTimeByCourse(out);
+    }
+
+    /**
+     * Completed-task totals per day, week or month for buckets starting within [from, to).
+     */
+    public List<RollupBucket> productivityStats(RollupPeriod period, LocalDate from, LocalDate to) {
+        return analyticsService.productivity(period, from, to);
+    }
+
+    public void rebuildStats() {
+        analyticsService.rebuildRollups();
     }
 
     public long doneTodayCount() {
-        return analyticsService.countDoneToday(taskService.listTasks());
+        return analyticsService.countDoneToday();
+    }
+
+    public long overdueCount() {
+        return analyticsService.countOverdue();
+    }
+
+    public long highRiskCount() {
+        return analyticsService.countHighRisk();
+    }
+
+    public long remainingEstimateMinutes() {
+        return analyticsService.remainingEstimateMinutes();
+    }
+
+    public long postponeCount() {
+        return analyticsService.countPostpones();
+    }
+
+    public OverrunStats estimationAccuracy(Priority priority) {
+        return analyticsService.estimationAccuracy(priority);
+    }
+
+    public OverrunStats estimationAccuracyForCourse(String courseId) {
+        return analyticsService.estimationAccuracyForCourse(courseId);
     }
 
     public boolean isHighRisk(Task task) {
@@ -60,6 +140,51 @@ public class TaskController {
         return taskService.tasksDueToday();
     }
 
+    public List<Task> tasksDueBetween(LocalDateTime from, LocalDateTime to) {
+        return taskService.tasksDueBetween(from, to);
+    }
+
+    /**
+     * Monday 00:00 up to next Monday 00:00 of the current week.
+     */
+    public List<Task> tasksDueThisWeek() {
+        LocalDate monday = LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        return taskService.tasksDueBetween(monday.atStartOfDay(), monday.plusWeeks(1).atStartOfDay());
+    }
+
+    public List<Task> tasksDueWithinHours(long hours) {
+        LocalDateTime now = LocalDateTime.now();
+        return taskService.tasksDueBetween(now, now.plusHours(hours));
+    }
+
+    public List<Task> tasksOverlapping(LocalDateTime from, LocalDateTime to) {
+        return taskService.tasksOverlapping(from, to);
+    }
+
+    public Optional<Task> taskActiveAt(LocalDateTime instant) {
+        return taskService.taskActiveAt(instant);
+    }
+
+    public List<Task> topTasks(int n) {
+        return taskService.topTasks(n);
+    }
+
+    public List<Task> topTasks(int n, Comparator<? super Task> order) {
+        return taskService.topTasks(n, order);
+    }
+
+    public Optional<Task> nextStartingAfter(LocalDateTime instant) {
+        return taskService.nextStartingAfter(instant);
+    }
+
+    public List<Task> tasksStartingAfter(LocalDateTime instant, int n) {
+        return taskService.tasksStartingAfter(instant, n);
+    }
+
+    public int unscheduledCount() {
+        return taskService.countWithoutSchedule();
+    }
+
     public List<Task> tasksWithSchedule() {
         return taskService.tasksWithSchedule();
     }
@@ -75,6 +200,8 @@ public class TaskController {
     public void shutdown() {
         taskService.refreshStatuses();
         taskService.persist();
+        taskService.flush();
+        analyticsService.flush();
     }
 
     public void resetAll() {
@@ -0,0 +1,39 @@
+package edu.study.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Wall-clock minutes since 1970-01-01T00:00, the compact form Task keeps its timestamps in. No time zone is involved:
+ * a LocalDateTime is read as if it were UTC and comes back unchanged, minus anything below a minute.
+ */
+public final class EpochMinutes {
+    public static final long NONE = Long.MIN_VALUE;
+    public static final long PER_DAY = 24 * 60;
+
+    private EpochMinutes() {
+    }
+
+    /**
+     * Rounded down to the minute; NONE for null.
+     */
+    public static long of(LocalDateTime time) {
+        return time == null ? NONE : Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    /**
+     * The first whole minute at or after the time, for turning a bound into a minute bound.
+     */
+    public static long ceil(LocalDateTime time) {
+        long minute = of(time);
+        return time.getSecond() == 0 && time.getNano() == 0 ? minute : minute + 1;
+    }
+
+    public static LocalDateTime toDateTime(long minute) {
+        return minute == NONE ? null : LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+    }
+
+    public static long toEpochDay(long minute) {
+        return Math.floorDiv(minute, PER_DAY);
+    }
+}
@@ -0,0 +1,80 @@
+package edu.study.model;
+
+import java.time.LocalDate;
+
+/**
+ * Totals over the tasks completed within one day, week or month, starting at {@code start}.
+ * Actual minutes run from startTime to completedAt and only cover the {@code measured} tasks that had both.
+ */
+public class RollupBucket {
+    private LocalDate start;
+    private long completed;
+    private long measured;
+    private long estimatedMinutes;
+    private long actualMinutes;
+    private long postpones;
+
+    public RollupBucket() {
+    }
+
+    public RollupBucket(LocalDate start) {
+        this.start = start;
+    }
+
+    public RollupBucket(RollupBucket other) {
+        this.start = other.start;
+        this.completed = other.completed;
+        this.measured = other.measured;
+        this.estimatedMinutes = other.estimatedMinutes;
+        this.actualMinutes = other.actualMinutes;
+        this.postpones = other.postpones;
+    }
+
+    public LocalDate getStart() {
+        return start;
+    }
+
+    public void setStart(LocalDate start) {
+        this.start = start;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(long completed) {
+        this.completed = completed;
+    }
+
+    public long getMeasured() {
+        return measured;
+    }
+
+    public void setMeasured(long measured) {
+        this.measured = measured;
+    }
+
+    public long getEstimatedMinutes() {
+        return estimatedMinutes;
+    }
+
+    public void setEstimatedMinutes(long estimatedMinutes) {
+        this.estimatedMinutes = estimatedMinutes;
+    }
+
+    public long getActualMinutes() {
+        return actualMinutes;
+    }
+
+    public void setActualMinutes(long actualMinutes) {
+        this.actualMinutes = actualMinutes;
+    }
+
+    public long getPostpones() {
+        return postpones;
+    }
+
+    public void setPostpones(long postpones) {
+        this.postpones = postpones;
+    }
+}
@@ -3,23 +3,34 @@ package edu.study.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Objects;
 import java.util.UUID;
 
+/**
+ * Stored in primitive form: timestamps as {@link EpochMinutes}, the estimate as int minutes and the course id
+ * interned. The getters build the java.time objects on demand, so a task costs one small object plus its id, title
+ * and description instead of also carrying five LocalDateTimes and a Duration. Timestamps keep minute precision,
+ * as the binary format always did. The id stays a UUID object because every index keys on it and shares it.
+ */
 public class Task {
+    private static final int DEFAULT_ESTIMATE_MINUTES = 60;
+
     private UUID taskId;
     private String title;
     private String description;
     private Priority priority = Priority.MEDIUM;
-    private LocalDateTime startTime;
-    private LocalDateTime deadline;
+    private long startMinute = EpochMinutes.NONE;
+    private long deadlineMinute = EpochMinutes.NONE;
     private TaskStatus status = TaskStatus.TODO;
-    private Duration estimatedTime = Duration.ofHours(1);
+    private int estimateMinutes = DEFAULT_ESTIMATE_MINUTES;
     private String courseId;
-    private LocalDateTime createdAt = LocalDateTime.now();
-    private LocalDateTime updatedAt = LocalDateTime.now();
-    private LocalDateTime completedAt;
+    private long createdMinute = EpochMinutes.of(LocalDateTime.now());
+    private long updatedMinute = createdMinute;
+    private long completedMinute = EpochMinutes.NONE;
     private int postponeCount = 0;
+    private long version;
+    private long cleanVersion;
 
     public Task() {
         // for Jackson
@@ -30,12 +41,11 @@ public class Task {
         this.title = title;
         this.description = description;
         this.priority = priority != null ? priority : Priority.MEDIUM;
-        this.startTime = startTime;
-        this.deadline = deadline;
-        this.estimatedTime = estimatedTime != null ? estimatedTime : Duration.ofHours(1);
-        this.courseId = courseId;
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
+        this.startMinute = EpochMinutes.of(startTime);
+        this.deadlineMinute = EpochMinutes.of(deadline);
+        this.estimateMinutes = estimatedTime != null ? minutes(estimatedTime) : DEFAULT_ESTIMATE_MINUTES;
+        this.courseId = intern(courseId);
+        this.version = 1;
     }
 
     public UUID getTaskId() {
@@ -44,6 +54,7 @@ public class Task {
 
     public void setTaskId(UUID taskId) {
         this.taskId = taskId;
+        touch();
     }
 
     public String getTitle() {
@@ -52,6 +63,7 @@ public class Task {
 
     public void setTitle(String title) {
         this.title = title;
+        touch();
     }
 
     public String getDescription() {
@@ -60,6 +72,7 @@ public class Task {
 
     public void setDescription(String description) {
         this.description = description;
+        touch();
     }
 
     public Priority getPriority() {
@@ -68,22 +81,25 @@ public class Task {
 
     public void setPriority(Priority priority) {
         this.priority = priority;
+        touch();
     }
 
     public LocalDateTime getStartTime() {
-        return startTime;
+        return EpochMinutes.toDateTime(startMinute);
     }
 
     public void setStartTime(LocalDateTime startTime) {
-        this.startTime = startTime;
+        this.startMinute = EpochMinutes.of(startTime);
+        touch();
     }
 
     public LocalDateTime getDeadline() {
-        return deadline;
+        return EpochMinutes.toDateTime(deadlineMinute);
     }
 
     public void setDeadline(LocalDateTime deadline) {
-        this.deadline = deadline;
+        this.deadlineMinute = EpochMinutes.of(deadline);
+        touch();
     }
 
     public TaskStatus getStatus() {
@@ -92,14 +108,16 @@ public class Task {
 
     public void setStatus(TaskStatus status) {
         this.status = status;
+        touch();
     }
 
     public Duration getEstimatedTime() {
-        return estimatedTime;
+        return Duration.ofMinutes(estimateMinutes);
     }
 
     public void setEstimatedTime(Duration estimatedTime) {
-        this.estimatedTime = estimatedTime != null ? estimatedTime : Duration.ofHours(1);
+        this.estimateMinutes = estimatedTime != null ? minutes(estimatedTime) : DEFAULT_ESTIMATE_MINUTES;
+        touch();
     }
 
     public String getCourseId() {
@@ -107,31 +125,35 @@ public class Task {
     }
 
     public void setCourseId(String courseId) {
-        this.courseId = courseId;
+        this.courseId = intern(courseId);
+        touch();
     }
 
     public LocalDateTime getCreatedAt() {
-        return createdAt;
+        return EpochMinutes.toDateTime(createdMinute);
     }
 
     public void setCreatedAt(LocalDateTime createdAt) {
-        this.createdAt = createdAt;
+        this.createdMinute = EpochMinutes.of(createdAt);
+        touch();
     }
 
     public LocalDateTime getUpdatedAt() {
-        return updatedAt;
+        return EpochMinutes.toDateTime(updatedMinute);
     }
 
     public void setUpdatedAt(LocalDateTime updatedAt) {
-        this.updatedAt = updatedAt;
+        this.updatedMinute = EpochMinutes.of(updatedAt);
+        touch();
     }
 
     public LocalDateTime getCompletedAt() {
-        return completedAt;
+        return EpochMinutes.toDateTime(completedMinute);
     }
 
     public void setCompletedAt(LocalDateTime completedAt) {
-        this.completedAt = completedAt;
+        this.completedMinute = EpochMinutes.of(completedAt);
+        touch();
     }
 
     public int getPostponeCount() {
@@ -140,37 +162,131 @@ public class Task {
 
     public void incrementPostponeCount() {
         this.postponeCount++;
+        touch();
     }
 
     public void setPostponeCount(int postponeCount) {
         this.postponeCount = postponeCount;
+        touch();
+    }
+
+    /**
+     * The estimate in whole minutes, without building a Duration.
+     */
+    @JsonIgnore
+    public int getEstimatedMinutes() {
+        return estimateMinutes;
+    }
+
+    /**
+     * Start time as {@link EpochMinutes}, NONE when there is none.
+     */
+    @JsonIgnore
+    public long getStartEpochMinute() {
+        return startMinute;
+    }
+
+    @JsonIgnore
+    public long getDeadlineEpochMinute() {
+        return deadlineMinute;
+    }
+
+    @JsonIgnore
+    public long getCompletedEpochMinute() {
+        return completedMinute;
+    }
+
+    /**
+     * Field-by-field copy, including whether it still has unpersisted changes. TaskService edits a copy and publishes
+     * it in place of this instance, which other threads may still be reading.
+     */
+    public Task copy() {
+        Task copy = new Task();
+        copy.taskId = taskId;
+        copy.title = title;
+        copy.description = description;
+        copy.priority = priority;
+        copy.startMinute = startMinute;
+        copy.deadlineMinute = deadlineMinute;
+        copy.status = status;
+        copy.estimateMinutes = estimateMinutes;
+        copy.courseId = courseId;
+        copy.createdMinute = createdMinute;
+        copy.updatedMinute = updatedMinute;
+        copy.completedMinute = completedMinute;
+        copy.postponeCount = postponeCount;
+        copy.version = version;
+        copy.cleanVersion = cleanVersion;
+        return copy;
     }
 
     @JsonIgnore
     public boolean isOverdue(LocalDateTime now) {
-        return deadline != null && now.isAfter(deadline) && status != TaskStatus.DONE;
+        if (deadlineMinute == EpochMinutes.NONE || status == TaskStatus.DONE) {
+            return false;
+        }
+        long nowSecond = now.toEpochSecond(ZoneOffset.UTC);
+        long deadlineSecond = deadlineMinute * 60;
+        return nowSecond > deadlineSecond || (nowSecond == deadlineSecond && now.getNano() > 0);
     }
 
     public void refreshStatus(LocalDateTime now) {
         if (status == TaskStatus.DONE) {
             return;
         }
-        if (isOverdue(now)) {
+        if (isOverdue(now) && status != TaskStatus.OVERDUE) {
             status = TaskStatus.OVERDUE;
+            touch();
         }
     }
 
     public void markDone() {
         status = TaskStatus.DONE;
-        completedAt = LocalDateTime.now();
+        completedMinute = EpochMinutes.of(LocalDateTime.now());
+        touch();
+    }
+
+    /**
+     * Bumped by every mutation; only meaningful within one process.
+     */
+    @JsonIgnore
+    public long getVersion() {
+        return version;
+    }
+
+    @JsonIgnore
+    public boolean isDirty() {
+        return version != cleanVersion;
+    }
+
+    public void markClean() {
+        cleanVersion = version;
+    }
+
+    /**
+     * Marks the task clean up to the given version; later mutations keep it dirty.
+     */
+    public void markClean(long persistedVersion) {
+        if (persistedVersion > cleanVersion) {
+            cleanVersion = persistedVersion;
+        }
+    }
+
+    private void touch() {
+        version++;
     }
 
     @JsonIgnore
     public long remainingMinutes(LocalDateTime now) {
-        if (deadline == null) {
+        if (deadlineMinute == EpochMinutes.NONE) {
             return Long.MAX_VALUE;
         }
-        return Duration.between(now, deadline).toMinutes();
+        // same result as Duration.between(now, deadline).toMinutes(): whole seconds rounded down, then truncated
+        long seconds = deadlineMinute * 60 - now.toEpochSecond(ZoneOffset.UTC);
+        if (now.getNano() > 0) {
+            seconds--;
+        }
+        return seconds / 60;
     }
 
     @Override
@@ -185,4 +301,15 @@ public class Task {
     public int hashCode() {
         return Objects.hash(taskId);
     }
+
+    private static int minutes(Duration duration) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, duration.toMinutes()));
+    }
+
+    /**
+     * A handful of course ids is shared by thousands of tasks, each otherwise with its own copy from the parser.
+     */
+    private static String intern(String courseId) {
+        return courseId != null ? courseId.intern() : null;
+    }
 }
@@ -0,0 +1,56 @@
+package edu.study.model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * The fields of a task that does not exist yet, or of a partial update where null means "leave unchanged".
+ */
+public class TaskDraft {
+    private final String title;
+    private final String description;
+    private final Priority priority;
+    private final LocalDateTime startTime;
+    private final LocalDateTime deadline;
+    private final Duration estimatedTime;
+    private final String courseId;
+
+    public TaskDraft(String title, String description, Priority priority, LocalDateTime startTime,
+                     LocalDateTime deadline, Duration estimatedTime, String courseId) {
+        this.title = title;
+        this.description = description;
+        this.priority = priority;
+        this.startTime = startTime;
+        this.deadline = deadline;
+        this.estimatedTime = estimatedTime;
+        this.courseId = courseId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalDateTime getDeadline() {
+        return deadline;
+    }
+
+    public Duration getEstimatedTime() {
+        return estimatedTime;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+}
@@ -0,0 +1,61 @@
+package edu.study.repository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+
+public class BinaryDataRepository implements DataRepository {
+    private final Path storagePath;
+    private final BinaryDataStoreCodec codec = new BinaryDataStoreCodec();
+    private final SnapshotWriter writer;
+
+    public BinaryDataRepository(Path storagePath) {
+        this(storagePath, Duration.ZERO);
+    }
+
+    public BinaryDataRepository(Path storagePath, Duration commitWindow) {
+        this.storagePath = storagePath;
+        this.writer = new SnapshotWriter(storagePath, commitWindow);
+    }
+
+    @Override
+    public synchronized DataStore load() {
+        try {
+            if (!Files.exists(storagePath) || Files.size(storagePath) == 0) {
+                return new DataStore();
+            }
+            return codec.decode(Files.readAllBytes(storagePath));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read storage file: " + storagePath, e);
+        }
+    }
+
+    @Override
+    public StreamingDataStoreLoader.LoadResult loadStreaming() {
+        // decoding is cheap enough that history is not worth deferring
+        return new StreamingDataStoreLoader.LoadResult(load(), CompletableFuture.completedFuture(new ArrayList<>()));
+    }
+
+    @Override
+    public synchronized void save(DataStore store) {
+        writer.write(codec.encode(store));
+    }
+
+    @Override
+    public synchronized void saveGrouped(DataStore store) {
+        writer.submit(codec.encode(store));
+    }
+
+    @Override
+    public void flush() {
+        writer.flush();
+    }
+
+    @Override
+    public CommitStats commitStats() {
+        return writer.stats();
+    }
+}
@@ -0,0 +1,243 @@
+package edu.study.repository;
+
+import edu.study.model.Course;
+import edu.study.model.Priority;
+import edu.study.model.Task;
+import edu.study.model.TaskStatus;
+import edu.study.model.TimeBlock;
+import edu.study.model.User;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Compact binary form of a DataStore.
+ * Layout: magic, version, string table, then tasks, courses, time blocks and users.
+ * UUIDs are two longs, timestamps are epoch minutes (UTC, seconds are dropped), enums are ordinals
+ * and every string is an index into the deduplicated table.
+ */
+public class BinaryDataStoreCodec {
+    public static final int MAGIC = 0x53544D42;
+    public static final int VERSION = 1;
+
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final int NO_STRING = -1;
+    private static final byte NO_ENUM = -1;
+
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    public byte[] encode(DataStore store) {
+        StringTable strings = new StringTable();
+        collectStrings(store, strings);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            strings.write(out);
+            List<Task> tasks = orEmpty(store.getTasks());
+            out.writeInt(tasks.size());
+            for (Task task : tasks) {
+                writeTask(out, task, strings);
+            }
+            List<Course> courses = orEmpty(store.getCourses());
+            out.writeInt(courses.size());
+            for (Course course : courses) {
+                out.writeInt(strings.ref(course.getId()));
+                out.writeInt(strings.ref(course.getName()));
+                out.writeInt(strings.ref(course.getType()));
+                out.writeInt(strings.ref(course.getInstructor()));
+            }
+            List<TimeBlock> blocks = orEmpty(store.getTimeBlocks());
+            out.writeInt(blocks.size());
+            for (TimeBlock block : blocks) {
+                out.writeInt(strings.ref(block.getId()));
+                out.writeLong(toMinutes(block.getStart()));
+                out.writeLong(toMinutes(block.getEnd()));
+                out.writeInt(strings.ref(block.getTaskId()));
+                out.writeInt(strings.ref(block.getDescription()));
+            }
+            List<User> users = orEmpty(store.getUsers());
+            out.writeInt(users.size());
+            for (User user : users) {
+                out.writeInt(strings.ref(user.getId()));
+                out.writeInt(strings.ref(user.getName()));
+                out.writeInt(strings.ref(user.getEmail()));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode binary snapshot", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public DataStore decode(byte[] data) {
+        DataStore store = new DataStore();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readInt() != MAGIC) {
+                throw new IllegalStateException("Not a binary task snapshot");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IllegalStateException("Unsupported binary snapshot version: " + version);
+            }
+            String[] strings = StringTable.read(in);
+            int taskCount = in.readInt();
+            List<Task> tasks = new ArrayList<>(taskCount);
+            for (int i = 0; i < taskCount; i++) {
+                tasks.add(readTask(in, strings));
+            }
+            store.setTasks(tasks);
+            int courseCount = in.readInt();
+            List<Course> courses = new ArrayList<>(courseCount);
+            for (int i = 0; i < courseCount; i++) {
+                courses.add(new Course(str(strings, in.readInt()), str(strings, in.readInt()),
+                        str(strings, in.readInt()), str(strings, in.readInt())));
+            }
+            store.setCourses(courses);
+            int blockCount = in.readInt();
+            List<TimeBlock> blocks = new ArrayList<>(blockCount);
+            for (int i = 0; i < blockCount; i++) {
+                TimeBlock block = new TimeBlock();
+                block.setId(str(strings, in.readInt()));
+                block.setStart(fromMinutes(in.readLong()));
+                block.setEnd(fromMinutes(in.readLong()));
+                block.setTaskId(str(strings, in.readInt()));
+                block.setDescription(str(strings, in.readInt()));
+                blocks.add(block);
+            }
+            store.setTimeBlocks(blocks);
+            int userCount = in.readInt();
+            List<User> users = new ArrayList<>(userCount);
+            for (int i = 0; i < userCount; i++) {
+                users.add(new User(str(strings, in.readInt()), str(strings, in.readInt()), str(strings, in.readInt())));
+            }
+            store.setUsers(users);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to decode binary snapshot", e);
+        }
+        return store;
+    }
+
+    private void writeTask(DataOutputStream out, Task task, StringTable strings) throws IOException {
+        UUID id = task.getTaskId();
+        out.writeBoolean(id != null);
+        out.writeLong(id != null ? id.getMostSignificantBits() : 0);
+        out.writeLong(id != null ? id.getLeastSignificantBits() : 0);
+        out.writeInt(strings.ref(task.getTitle()));
+        out.writeInt(strings.ref(task.getDescription()));
+        out.writeByte(task.getPriority() != null ? task.getPriority().ordinal() : NO_ENUM);
+        out.writeByte(task.getStatus() != null ? task.getStatus().ordinal() : NO_ENUM);
+        out.writeLong(toMinutes(task.getStartTime()));
+        out.writeLong(toMinutes(task.getDeadline()));
+        out.writeLong(task.getEstimatedTime().toMinutes());
+        out.writeInt(strings.ref(task.getCourseId()));
+        out.writeLong(toMinutes(task.getCreatedAt()));
+        out.writeLong(toMinutes(task.getUpdatedAt()));
+        out.writeLong(toMinutes(task.getCompletedAt()));
+        out.writeInt(task.getPostponeCount());
+    }
+
+    private Task readTask(DataInputStream in, String[] strings) throws IOException {
+        Task task = new Task();
+        boolean hasId = in.readBoolean();
+        long msb = in.readLong();
+        long lsb = in.readLong();
+        task.setTaskId(hasId ? new UUID(msb, lsb) : null);
+        task.setTitle(str(strings, in.readInt()));
+        task.setDescription(str(strings, in.readInt()));
+        byte priority = in.readByte();
+        task.setPriority(priority != NO_ENUM ? PRIORITIES[priority] : null);
+        byte status = in.readByte();
+        task.setStatus(status != NO_ENUM ? STATUSES[status] : null);
+        task.setStartTime(fromMinutes(in.readLong()));
+        task.setDeadline(fromMinutes(in.readLong()));
+        task.setEstimatedTime(Duration.ofMinutes(in.readLong()));
+        task.setCourseId(str(strings, in.readInt()));
+        task.setCreatedAt(fromMinutes(in.readLong()));
+        task.setUpdatedAt(fromMinutes(in.readLong()));
+        task.setCompletedAt(fromMinutes(in.readLong()));
+        task.setPostponeCount(in.readInt());
+        return task;
+    }
+
+    private void collectStrings(DataStore store, StringTable strings) {
+        for (Task task : orEmpty(store.getTasks())) {
+            strings.ref(task.getTitle());
+            strings.ref(task.getDescription());
+            strings.ref(task.getCourseId());
+        }
+        for (Course course : orEmpty(store.getCourses())) {
+            strings.ref(course.getId());
+            strings.ref(course.getName());
+            strings.ref(course.getType());
+            strings.ref(course.getInstructor());
+        }
+        for (TimeBlock block : orEmpty(store.getTimeBlocks())) {
+            strings.ref(block.getId());
+            strings.ref(block.getTaskId());
+            strings.ref(block.getDescription());
+        }
+        for (User user : orEmpty(store.getUsers())) {
+            strings.ref(user.getId());
+            strings.ref(user.getName());
+            strings.ref(user.getEmail());
+        }
+    }
+
+    static long toMinutes(LocalDateTime time) {
+        return time == null ? NO_TIME : Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    static LocalDateTime fromMinutes(long minutes) {
+        return minutes == NO_TIME ? null : LocalDateTime.ofEpochSecond(minutes * 60, 0, ZoneOffset.UTC);
+    }
+
+    private static String str(String[] strings, int ref) {
+        return ref == NO_STRING ? null : strings[ref];
+    }
+
+    private static <T> List<T> orEmpty(List<T> list) {
+        return list != null ? list : new ArrayList<>();
+    }
+
+    private static class StringTable {
+        private final Map<String, Integer> index = new LinkedHashMap<>();
+
+        int ref(String value) {
+            if (value == null) {
+                return NO_STRING;
+            }
+            return index.computeIfAbsent(value, v -> index.size());
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeInt(index.size());
+            for (String value : index.keySet()) {
+                byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(utf8.length);
+                out.write(utf8);
+            }
+        }
+
+        static String[] read(DataInputStream in) throws IOException {
+            String[] strings = new String[in.readInt()];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] utf8 = new byte[in.readInt()];
+                in.readFully(utf8);
+                strings[i] = new String(utf8, StandardCharsets.UTF_8);
+            }
+            return strings;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package edu.study.repository;
+
+public class CommitStats {
+    private final long commits;
+    private final long mutations;
+    private final int lastBatchSize;
+    private final int maxBatchSize;
+    private final long lastLatencyMillis;
+    private final long lastWriteMillis;
+    private final long bytesWritten;
+
+    public CommitStats(long commits, long mutations, int lastBatchSize, int maxBatchSize,
+                       long lastLatencyMillis, long lastWriteMillis, long bytesWritten) {
+        this.commits = commits;
+        this.mutations = mutations;
+        this.lastBatchSize = lastBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.lastLatencyMillis = lastLatencyMillis;
+        this.lastWriteMillis = lastWriteMillis;
+        this.bytesWritten = bytesWritten;
+    }
+
+    public long getCommits() {
+        return commits;
+    }
+
+    public long getMutations() {
+        return mutations;
+    }
+
+    public int getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Time from the first coalesced mutation being submitted until the snapshot was durable.
+     */
+    public long getLastLatencyMillis() {
+        return lastLatencyMillis;
+    }
+
+    public long getLastWriteMillis() {
+        return lastWriteMillis;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public String toString() {
+        return "commits=" + commits + " mutations=" + mutations
+                + " lastBatch=" + lastBatchSize + " maxBatch=" + maxBatchSize
+                + " lastLatencyMs=" + lastLatencyMillis + " lastWriteMs=" + lastWriteMillis
+                + " bytes=" + bytesWritten;
+    }
+}
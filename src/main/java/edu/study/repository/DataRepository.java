@@ -0,0 +1,21 @@
+package edu.study.repository;
+
+public interface DataRepository {
+    DataStore load();
+
+    /**
+     * Returns open tasks right away; completed ones may still be loading in the background.
+     */
+    StreamingDataStoreLoader.LoadResult loadStreaming();
+
+    void save(DataStore store);
+
+    /**
+     * Queues the snapshot for the next group commit instead of writing it right away.
+     */
+    void saveGrouped(DataStore store);
+
+    void flush();
+
+    CommitStats commitStats();
+}
@@ -1,18 +1,154 @@
 package edu.study.repository;
 
 import edu.study.model.Task;
+import edu.study.model.TaskStatus;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
 
+/**
+ * Lookups read the table's immutable snapshot without locking; only writers serialize.
+ * Once the table is shared, TaskService applies changes to it directly and this class only writes them out.
+ * With a journal, saveChanges appends just the changed records; without one it rewrites the snapshot, grouped.
+ */
 public class FileTaskRepository implements TaskRepository {
-    private final JsonDataRepository jsonRepository;
+    private static final int DEFAULT_COMPACT_THRESHOLD = 500;
+
+    private final DataRepository dataRepository;
+    private final TaskJournal journal;
+    private final int compactThreshold;
     private DataStore cache;
+    private final TaskTable tasks = new TaskTable();
+    private CompletableFuture<List<Task>> completedTasks;
+    private boolean completedMerged;
+    // a snapshot write that came in before the history was merged; the merge writes it
+    private boolean snapshotDeferred;
+    private boolean shared;
+    private long mutations;
+    private long fullSaves;
+    private final StampedLock lock = new StampedLock();
+
+    public FileTaskRepository(DataRepository dataRepository) {
+        this(dataRepository, null, DEFAULT_COMPACT_THRESHOLD);
+    }
+
+    public FileTaskRepository(DataRepository dataRepository, TaskJournal journal) {
+        this(dataRepository, journal, DEFAULT_COMPACT_THRESHOLD);
+    }
+
+    public FileTaskRepository(DataRepository dataRepository, TaskJournal journal, int compactThreshold) {
+        this.dataRepository = dataRepository;
+        this.journal = journal;
+        this.compactThreshold = Math.max(1, compactThreshold);
+        mutate(this::load);
+        watchCompletedTasks();
+    }
+
+    private void load() {
+        cache = loadStore();
+        tasks.replaceAll(cache.getTasks());
+        // the table is the live copy; the store's list is rebuilt from it for each snapshot
+        cache.setTasks(new ArrayList<>());
+    }
+
+    private DataStore loadStore() {
+        if (journal == null) {
+            StreamingDataStoreLoader.LoadResult result = dataRepository.loadStreaming();
+            completedTasks = result.getCompletedTasks().exceptionally(this::loadCompletedTasksFully);
+            completedMerged = false;
+            snapshotDeferred = false;
+            return ensureLists(result.getStore());
+        }
+        // replay needs every task in place, so journal mode loads the snapshot in one go
+        DataStore store = ensureLists(dataRepository.load());
+        if (journal.replay(store) > 0 || journal.isTorn()) {
+            // fold the replayed log right away so a torn tail never sits in front of new records
+            dataRepository.save(store);
+            journal.truncate();
+        }
+        completedTasks = CompletableFuture.completedFuture(new ArrayList<>());
+        completedMerged = true;
+        return store;
+    }
+
+    /**
+     * The background pass failed, so the history is read again with a plain full load on the loader thread.
+     * Nothing has been written since the first pass (writes wait for the history), so the file still holds it.
+     * If this fails too, the history future fails: writes stay deferred rather than drop it, and flush throws.
+     */
+    private List<Task> loadCompletedTasksFully(Throwable error) {
+        List<Task> completed = new ArrayList<>();
+        for (Task task : ensureLists(dataRepository.load()).getTasks()) {
+            if (task.getStatus() == TaskStatus.DONE) {
+                completed.add(task);
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * Must be called without the lock held: the callback runs inline when the history is already loaded.
+     */
+    private void watchCompletedTasks() {
+        CompletableFuture<List<Task>> pending = read(() -> completedTasks);
+        pending.whenComplete((done, error) -> {
+            if (error == null) {
+                mutate(() -> mergeCompletedTasks(pending));
+            }
+        });
+    }
 
-    public FileTaskRepository(JsonDataRepository jsonRepository) {
-        this.jsonRepository = jsonRepository;
-        this.cache = ensureLists(jsonRepository.load());
+    private void mergeCompletedTasks(CompletableFuture<List<Task>> pending) {
+        if (pending != completedTasks || completedMerged) {
+            return;
+        }
+        for (Task task : pending.join()) {
+            tasks.putIfAbsent(task);
+        }
+        completedMerged = true;
+        if (snapshotDeferred) {
+            snapshotDeferred = false;
+            dataRepository.saveGrouped(snapshot());
+        }
+    }
+
+    /**
+     * Waits for the history and merges it. Must be called without the lock held, so nobody else waits meanwhile.
+     */
+    private void awaitCompletedTasks() {
+        CompletableFuture<List<Task>> pending = read(() -> completedTasks);
+        pending.join();
+        mutate(() -> mergeCompletedTasks(pending));
+    }
+
+    /**
+     * Merges the history if it has arrived, without waiting for it.
+     */
+    private void mergeCompletedTasksIfDone() {
+        if (!completedMerged && completedTasks.isDone()) {
+            mergeCompletedTasks(completedTasks);
+        }
+    }
+
+    /**
+     * Snapshots must never be written without the completed history. Until it is merged, the write is only
+     * noted and the merge makes it, so writers never wait for the history under the lock.
+     */
+    private void saveSnapshot(boolean grouped) {
+        mergeCompletedTasksIfDone();
+        if (!completedMerged) {
+            snapshotDeferred = true;
+            return;
+        }
+        if (grouped) {
+            dataRepository.saveGrouped(snapshot());
+        } else {
+            dataRepository.save(snapshot());
+        }
     }
 
     private DataStore ensureLists(DataStore dataStore) {
@@ -32,50 +168,175 @@ public class FileTaskRepository implements TaskRepository {
     }
 
     @Override
-    public synchronized List<Task> findAll() {
-        return new ArrayList<>(cache.getTasks());
+    public List<Task> findAll() {
+        long stamp = lock.readLock();
+        try {
+            if (!completedMerged && completedTasks.isDone()) {
+                long writeStamp = lock.tryConvertToWriteLock(stamp);
+                if (writeStamp == 0) {
+                    lock.unlockRead(stamp);
+                    writeStamp = lock.writeLock();
+                }
+                stamp = writeStamp;
+                mergeCompletedTasksIfDone();
+            }
+            return tasks.toList();
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    @Override
+    public CompletableFuture<List<Task>> completedTasks() {
+        return read(() -> completedTasks);
     }
 
     @Override
-    public synchronized Optional<Task> findById(UUID id) {
-        return cache.getTasks().stream()
-                .filter(t -> t.getTaskId() != null && t.getTaskId().equals(id))
-                .findFirst();
+    public Optional<TaskTable> sharedTable() {
+        mutate(() -> shared = true);
+        return Optional.of(tasks);
     }
 
     @Override
-    public synchronized Task save(Task task) {
+    public Optional<Task> findById(UUID id) {
+        return Optional.ofNullable(tasks.get(id));
+    }
+
+    @Override
+    public Task save(Task task) {
         if (task.getTaskId() == null) {
             task.setTaskId(UUID.randomUUID());
         }
-        cache.getTasks().removeIf(t -> task.getTaskId().equals(t.getTaskId()));
-        cache.getTasks().add(task);
-        persist();
+        saveChanges(List.of(task), List.of());
         return task;
     }
 
     @Override
-    public synchronized void saveAll(List<Task> tasks) {
-        cache.setTasks(new ArrayList<>(tasks));
-        persist();
+    public void saveChanges(List<Task> changed, List<UUID> deleted) {
+        mutate(() -> applyChanges(changed, deleted));
+    }
+
+    private void applyChanges(List<Task> changed, List<UUID> deleted) {
+        mergeCompletedTasksIfDone();
+        if (!shared) {
+            for (Task task : changed) {
+                tasks.put(task);
+            }
+            for (UUID id : deleted) {
+                tasks.remove(id);
+            }
+        }
+        mutations += changed.size() + deleted.size();
+        if (journal != null) {
+            journal.appendAll(changed, deleted);
+            compactIfNeeded();
+        } else {
+            // snapshot mode has no record-level format, so a change still costs one (grouped) full write
+            saveSnapshot(true);
+        }
     }
 
     @Override
-    public synchronized boolean delete(UUID id) {
-        boolean removed = cache.getTasks().removeIf(t -> id.equals(t.getTaskId()));
-        if (removed) {
-            persist();
+    public void saveAll(List<Task> all) {
+        mutate(() -> {
+            mergeCompletedTasksIfDone();
+            if (!shared) {
+                tasks.replaceAll(all);
+            }
+            mutations++;
+            fullSaves++;
+            if (journal != null) {
+                writeSnapshot();
+            } else {
+                saveSnapshot(true);
+            }
+        });
+    }
+
+    @Override
+    public boolean delete(UUID id) {
+        if (!tasks.contains(id)) {
+            // it may be in the history that is still loading
+            awaitCompletedTasks();
+        }
+        long stamp = lock.writeLock();
+        try {
+            mergeCompletedTasksIfDone();
+            if (!tasks.contains(id)) {
+                return false;
+            }
+            applyChanges(List.of(), List.of(id));
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        return removed;
     }
 
     @Override
-    public synchronized void refresh() {
-        cache = ensureLists(jsonRepository.load());
+    public void refresh() {
+        mutate(this::load);
+        watchCompletedTasks();
+    }
+
+    @Override
+    public void persist() {
+        mutate(this::writeSnapshot);
+    }
+
+    private void writeSnapshot() {
+        saveSnapshot(false);
+        if (journal != null) {
+            journal.truncate();
+        }
     }
 
+    /**
+     * Waits for the history first, so that a deferred snapshot is written before flushing.
+     */
     @Override
-    public synchronized void persist() {
-        jsonRepository.save(cache);
+    public void flush() {
+        awaitCompletedTasks();
+        dataRepository.flush();
+    }
+
+    public CommitStats commitStats() {
+        return dataRepository.commitStats();
+    }
+
+    @Override
+    public WriteStats writeStats() {
+        return read(() -> {
+            long bytes = dataRepository.commitStats().getBytesWritten() + (journal != null ? journal.bytesWritten() : 0);
+            return new WriteStats(mutations, bytes, fullSaves);
+        });
+    }
+
+    private void compactIfNeeded() {
+        if (journal.size() >= compactThreshold) {
+            writeSnapshot();
+        }
+    }
+
+    private DataStore snapshot() {
+        cache.setTasks(tasks.toList());
+        return cache;
+    }
+
+    private <T> T read(Supplier<T> action) {
+        long stamp = lock.readLock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void mutate(Runnable action) {
+        long stamp = lock.writeLock();
+        try {
+            action.run();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 }
@@ -6,19 +6,34 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+public class JsonDataRepository implements DataRepository {
+    private static final Executor HISTORY_LOADER = r -> {
+        Thread t = new Thread(r, "history-loader");
+        t.setDaemon(true);
+        t.start();
+    };
 
-public class JsonDataRepository {
     private final Path storagePath;
     private final ObjectMapper mapper;
+    private final SnapshotWriter writer;
 
     public JsonDataRepository(Path storagePath) {
+        this(storagePath, Duration.ZERO);
+    }
+
+    public JsonDataRepository(Path storagePath, Duration commitWindow) {
         this.storagePath = storagePath;
         this.mapper = new ObjectMapper()
                 .registerModule(new JavaTimeModule())
                 .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
                 .enable(SerializationFeature.INDENT_OUTPUT);
+        this.writer = new SnapshotWriter(storagePath, commitWindow);
     }
 
+    @Override
     public synchronized DataStore load() {
         if (!Files.exists(storagePath)) {
             return new DataStore();
@@ -33,12 +48,34 @@ public class JsonDataRepository {
         }
     }
 
+    @Override
+    public synchronized StreamingDataStoreLoader.LoadResult loadStreaming() {
+        return new StreamingDataStoreLoader(mapper).load(storagePath, HISTORY_LOADER);
+    }
+
+    @Override
     public synchronized void save(DataStore store) {
+        writer.write(serialize(store));
+    }
+
+    @Override
+    public synchronized void saveGrouped(DataStore store) {
+        writer.submit(serialize(store));
+    }
+
+    @Override
+    public void flush() {
+        writer.flush();
+    }
+
+    @Override
+    public CommitStats commitStats() {
+        return writer.stats();
+    }
+
+    private byte[] serialize(DataStore store) {
         try {
-            if (storagePath.getParent() != null) {
-                Files.createDirectories(storagePath.getParent());
-            }
-            mapper.writeValue(storagePath.toFile(), store);
+            return mapper.writeValueAsBytes(store);
         } catch (IOException e) {
             throw new IllegalStateException("Failed to write storage file: " + storagePath, e);
         }
@@ -0,0 +1,497 @@
+package edu.study.repository;
+
+import edu.study.model.Priority;
+import edu.study.model.Task;
+import edu.study.model.TaskStatus;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Task storage in two memory-mapped files: fixed-width records and an append-only string heap.
+ * Only a primitive UUID index lives on the JVM heap; record data stays in the page cache and a
+ * Task is materialized only when a caller asks for it. TaskService still loads every task into its own table,
+ * so what this saves is the repository's copy, not the service's. Timestamps are kept as epoch minutes.
+ */
+public class MappedTaskRepository implements TaskRepository {
+    private static final int MAGIC = 0x53544D52;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 96;
+    private static final long INITIAL_RECORD_BYTES = HEADER_SIZE + 1024L * RECORD_SIZE;
+    private static final long INITIAL_HEAP_BYTES = 64 * 1024;
+    private static final long NO_STRING = -1;
+    private static final byte NO_ENUM = -1;
+
+    // record layout
+    private static final int OFF_PRIORITY = 0;
+    private static final int OFF_STATUS = 1;
+    private static final int OFF_POSTPONE = 4;
+    private static final int OFF_MSB = 8;
+    private static final int OFF_LSB = 16;
+    private static final int OFF_START = 24;
+    private static final int OFF_DEADLINE = 32;
+    private static final int OFF_CREATED = 40;
+    private static final int OFF_UPDATED = 48;
+    private static final int OFF_COMPLETED = 56;
+    private static final int OFF_ESTIMATE = 64;
+    private static final int OFF_TITLE = 72;
+    private static final int OFF_DESCRIPTION = 80;
+    private static final int OFF_COURSE = 88;
+
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private final FileChannel recordChannel;
+    private final FileChannel heapChannel;
+    private MappedByteBuffer records;
+    private MappedByteBuffer heap;
+    private int count;
+    private long heapEnd;
+    private UuidSlotIndex index;
+    private long mutations;
+    private long bytesWritten;
+    private long fullSaves;
+
+    public MappedTaskRepository(Path recordPath, Path heapPath) {
+        try {
+            if (recordPath.getParent() != null) {
+                Files.createDirectories(recordPath.getParent());
+            }
+            this.recordChannel = FileChannel.open(recordPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.heapChannel = FileChannel.open(heapPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to open segment store: " + recordPath, e);
+        }
+        open();
+    }
+
+    private void open() {
+        try {
+            boolean fresh = recordChannel.size() < HEADER_SIZE;
+            records = recordChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    Math.max(recordChannel.size(), INITIAL_RECORD_BYTES));
+            heap = heapChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    Math.max(heapChannel.size(), INITIAL_HEAP_BYTES));
+            if (fresh) {
+                records.putInt(0, MAGIC);
+                records.putInt(4, VERSION);
+                records.putInt(8, 0);
+                records.putInt(12, RECORD_SIZE);
+                heap.putInt(0, MAGIC);
+                heap.putInt(4, VERSION);
+                heap.putLong(8, HEADER_SIZE);
+            } else if (records.getInt(0) != MAGIC || heap.getInt(0) != MAGIC) {
+                throw new IllegalStateException("Not a task segment store");
+            } else if (records.getInt(4) != VERSION || records.getInt(12) != RECORD_SIZE) {
+                throw new IllegalStateException("Unsupported segment store version: " + records.getInt(4));
+            }
+            count = records.getInt(8);
+            heapEnd = heap.getLong(8);
+            rebuildIndex();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to map segment store", e);
+        }
+    }
+
+    private void rebuildIndex() {
+        index = new UuidSlotIndex(Math.max(16, count * 2));
+        for (int slot = 0; slot < count; slot++) {
+            int base = recordBase(slot);
+            index.put(records.getLong(base + OFF_MSB), records.getLong(base + OFF_LSB), slot);
+        }
+    }
+
+    @Override
+    public synchronized List<Task> findAll() {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int slot = 0; slot < count; slot++) {
+            tasks.add(readTask(slot));
+        }
+        return tasks;
+    }
+
+    @Override
+    public CompletableFuture<List<Task>> completedTasks() {
+        return CompletableFuture.completedFuture(new ArrayList<>());
+    }
+
+    @Override
+    public Optional<TaskTable> sharedTable() {
+        return Optional.empty();
+    }
+
+    @Override
+    public synchronized Optional<Task> findById(UUID id) {
+        int slot = index.get(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        return slot >= 0 ? Optional.of(readTask(slot)) : Optional.empty();
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    @Override
+    public synchronized Task save(Task task) {
+        if (task.getTaskId() == null) {
+            task.setTaskId(UUID.randomUUID());
+        }
+        UUID id = task.getTaskId();
+        int slot = index.get(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        if (slot < 0) {
+            // write the record and its strings before the count makes it visible
+            slot = count;
+            ensureRecordCapacity(count + 1);
+            clearStrings(slot);
+            writeTask(slot, task);
+            count++;
+            records.putInt(8, count);
+            index.put(id.getMostSignificantBits(), id.getLeastSignificantBits(), slot);
+        } else {
+            writeTask(slot, task);
+        }
+        mutations++;
+        bytesWritten += RECORD_SIZE;
+        return task;
+    }
+
+    @Override
+    public synchronized void saveChanges(List<Task> changed, List<UUID> deleted) {
+        for (Task task : changed) {
+            save(task);
+        }
+        for (UUID id : deleted) {
+            delete(id);
+        }
+    }
+
+    /**
+     * Brings the store in line with the given tasks in place: records of tasks not in the list are deleted, and only
+     * records that differ are rewritten. A crash partway leaves every record either old or new, never a truncated
+     * store, and a save at shutdown writes nothing the record-by-record saves already wrote.
+     */
+    @Override
+    public synchronized void saveAll(List<Task> tasks) {
+        fullSaves++;
+        UuidSlotIndex keep = new UuidSlotIndex(tasks.size() * 2);
+        for (Task task : tasks) {
+            if (task.getTaskId() == null) {
+                task.setTaskId(UUID.randomUUID());
+            }
+            keep.put(task.getTaskId().getMostSignificantBits(), task.getTaskId().getLeastSignificantBits(), 0);
+        }
+        // backwards, so the tail record a delete moves into the hole has already been checked
+        for (int slot = count - 1; slot >= 0; slot--) {
+            int base = recordBase(slot);
+            long msb = records.getLong(base + OFF_MSB);
+            long lsb = records.getLong(base + OFF_LSB);
+            if (keep.get(msb, lsb) < 0) {
+                delete(new UUID(msb, lsb));
+            }
+        }
+        for (Task task : tasks) {
+            UUID id = task.getTaskId();
+            int slot = index.get(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            if (slot < 0 || !matches(slot, task)) {
+                save(task);
+            }
+        }
+    }
+
+    @Override
+    public synchronized boolean delete(UUID id) {
+        int slot = index.remove(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        if (slot < 0) {
+            return false;
+        }
+        int last = count - 1;
+        if (slot != last) {
+            // keep records dense by moving the tail record into the hole
+            int from = recordBase(last);
+            int to = recordBase(slot);
+            for (int i = 0; i < RECORD_SIZE; i += 8) {
+                records.putLong(to + i, records.getLong(from + i));
+            }
+            index.put(records.getLong(to + OFF_MSB), records.getLong(to + OFF_LSB), slot);
+        }
+        count = last;
+        records.putInt(8, count);
+        mutations++;
+        bytesWritten += RECORD_SIZE;
+        return true;
+    }
+
+    @Override
+    public synchronized void refresh() {
+        count = records.getInt(8);
+        heapEnd = heap.getLong(8);
+        rebuildIndex();
+    }
+
+    @Override
+    public synchronized void persist() {
+        records.force();
+        heap.force();
+    }
+
+    @Override
+    public void flush() {
+        persist();
+    }
+
+    @Override
+    public synchronized WriteStats writeStats() {
+        return new WriteStats(mutations, bytesWritten, fullSaves);
+    }
+
+    private Task readTask(int slot) {
+        int base = recordBase(slot);
+        Task task = new Task();
+        task.setTaskId(new UUID(records.getLong(base + OFF_MSB), records.getLong(base + OFF_LSB)));
+        task.setTitle(readString(records.getLong(base + OFF_TITLE)));
+        task.setDescription(readString(records.getLong(base + OFF_DESCRIPTION)));
+        byte priority = records.get(base + OFF_PRIORITY);
+        task.setPriority(priority != NO_ENUM ? PRIORITIES[priority] : null);
+        byte status = records.get(base + OFF_STATUS);
+        task.setStatus(status != NO_ENUM ? STATUSES[status] : null);
+        task.setStartTime(BinaryDataStoreCodec.fromMinutes(records.getLong(base + OFF_START)));
+        task.setDeadline(BinaryDataStoreCodec.fromMinutes(records.getLong(base + OFF_DEADLINE)));
+        task.setEstimatedTime(Duration.ofMinutes(records.getInt(base + OFF_ESTIMATE)));
+        task.setCourseId(readString(records.getLong(base + OFF_COURSE)));
+        task.setCreatedAt(BinaryDataStoreCodec.fromMinutes(records.getLong(base + OFF_CREATED)));
+        task.setUpdatedAt(BinaryDataStoreCodec.fromMinutes(records.getLong(base + OFF_UPDATED)));
+        task.setCompletedAt(BinaryDataStoreCodec.fromMinutes(records.getLong(base + OFF_COMPLETED)));
+        task.setPostponeCount(records.getInt(base + OFF_POSTPONE));
+        return task;
+    }
+
+    private void writeTask(int slot, Task task) {
+        int base = recordBase(slot);
+        records.put(base + OFF_PRIORITY, task.getPriority() != null ? (byte) task.getPriority().ordinal() : NO_ENUM);
+        records.put(base + OFF_STATUS, task.getStatus() != null ? (byte) task.getStatus().ordinal() : NO_ENUM);
+        records.putInt(base + OFF_POSTPONE, task.getPostponeCount());
+        records.putLong(base + OFF_MSB, task.getTaskId().getMostSignificantBits());
+        records.putLong(base + OFF_LSB, task.getTaskId().getLeastSignificantBits());
+        records.putLong(base + OFF_START, BinaryDataStoreCodec.toMinutes(task.getStartTime()));
+        records.putLong(base + OFF_DEADLINE, BinaryDataStoreCodec.toMinutes(task.getDeadline()));
+        records.putLong(base + OFF_CREATED, BinaryDataStoreCodec.toMinutes(task.getCreatedAt()));
+        records.putLong(base + OFF_UPDATED, BinaryDataStoreCodec.toMinutes(task.getUpdatedAt()));
+        records.putLong(base + OFF_COMPLETED, BinaryDataStoreCodec.toMinutes(task.getCompletedAt()));
+        records.putInt(base + OFF_ESTIMATE, (int) task.getEstimatedTime().toMinutes());
+        records.putLong(base + OFF_TITLE, writeString(records.getLong(base + OFF_TITLE), task.getTitle()));
+        records.putLong(base + OFF_DESCRIPTION, writeString(records.getLong(base + OFF_DESCRIPTION), task.getDescription()));
+        records.putLong(base + OFF_COURSE, writeString(records.getLong(base + OFF_COURSE), task.getCourseId()));
+    }
+
+    private boolean matches(int slot, Task task) {
+        int base = recordBase(slot);
+        return records.get(base + OFF_PRIORITY) == (task.getPriority() != null ? (byte) task.getPriority().ordinal() : NO_ENUM)
+                && records.get(base + OFF_STATUS) == (task.getStatus() != null ? (byte) task.getStatus().ordinal() : NO_ENUM)
+                && records.getInt(base + OFF_POSTPONE) == task.getPostponeCount()
+                && records.getLong(base + OFF_START) == BinaryDataStoreCodec.toMinutes(task.getStartTime())
+                && records.getLong(base + OFF_DEADLINE) == BinaryDataStoreCodec.toMinutes(task.getDeadline())
+                && records.getLong(base + OFF_CREATED) == BinaryDataStoreCodec.toMinutes(task.getCreatedAt())
+                && records.getLong(base + OFF_UPDATED) == BinaryDataStoreCodec.toMinutes(task.getUpdatedAt())
+                && records.getLong(base + OFF_COMPLETED) == BinaryDataStoreCodec.toMinutes(task.getCompletedAt())
+                && records.getInt(base + OFF_ESTIMATE) == (int) task.getEstimatedTime().toMinutes()
+                && sameString(records.getLong(base + OFF_TITLE), task.getTitle())
+                && sameString(records.getLong(base + OFF_DESCRIPTION), task.getDescription())
+                && sameString(records.getLong(base + OFF_COURSE), task.getCourseId());
+    }
+
+    private boolean sameString(long ref, String value) {
+        if (value == null || ref == NO_STRING) {
+            return value == null && ref == NO_STRING;
+        }
+        return sameBytes((int) ref, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void clearStrings(int slot) {
+        int base = recordBase(slot);
+        records.putLong(base + OFF_TITLE, NO_STRING);
+        records.putLong(base + OFF_DESCRIPTION, NO_STRING);
+        records.putLong(base + OFF_COURSE, NO_STRING);
+    }
+
+    private String readString(long ref) {
+        if (ref == NO_STRING) {
+            return null;
+        }
+        int offset = (int) ref;
+        byte[] utf8 = new byte[heap.getInt(offset)];
+        heap.get(offset + 4, utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reuses the existing heap entry when the value did not change; otherwise appends a new one.
+     */
+    private long writeString(long existing, String value) {
+        if (value == null) {
+            return NO_STRING;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        if (existing != NO_STRING && sameBytes((int) existing, utf8)) {
+            return existing;
+        }
+        long offset = heapEnd;
+        ensureHeapCapacity(offset + 4 + utf8.length);
+        heap.putInt((int) offset, utf8.length);
+        heap.put((int) offset + 4, utf8);
+        heapEnd = offset + 4 + utf8.length;
+        bytesWritten += 4 + utf8.length;
+        heap.putLong(8, heapEnd);
+        return offset;
+    }
+
+    private boolean sameBytes(int offset, byte[] utf8) {
+        if (heap.getInt(offset) != utf8.length) {
+            return false;
+        }
+        for (int i = 0; i < utf8.length; i++) {
+            if (heap.get(offset + 4 + i) != utf8[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int recordBase(int slot) {
+        return HEADER_SIZE + slot * RECORD_SIZE;
+    }
+
+    private void ensureRecordCapacity(int slots) {
+        long needed = HEADER_SIZE + (long) slots * RECORD_SIZE;
+        if (needed > records.capacity()) {
+            records = remap(recordChannel, records, needed);
+        }
+    }
+
+    private void ensureHeapCapacity(long needed) {
+        if (needed > heap.capacity()) {
+            heap = remap(heapChannel, heap, needed);
+        }
+    }
+
+    private MappedByteBuffer remap(FileChannel channel, MappedByteBuffer current, long needed) {
+        long size = current.capacity();
+        while (size < needed) {
+            size *= 2;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Segment store exceeds 2 GB mapping limit");
+        }
+        try {
+            current.force();
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to grow segment store", e);
+        }
+    }
+
+    /**
+     * Open-addressing UUID -> slot map on primitive arrays (linear probing, backward-shift deletes).
+     */
+    private static class UuidSlotIndex {
+        private long[] msbs;
+        private long[] lsbs;
+        private int[] slots;
+        private int size;
+
+        UuidSlotIndex(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(16, expected) * 2 - 1);
+            allocate(capacity);
+        }
+
+        int get(long msb, long lsb) {
+            int mask = slots.length - 1;
+            for (int i = hash(msb, lsb) & mask; slots[i] != 0; i = (i + 1) & mask) {
+                if (msbs[i] == msb && lsbs[i] == lsb) {
+                    return slots[i] - 1;
+                }
+            }
+            return -1;
+        }
+
+        void put(long msb, long lsb, int slot) {
+            if ((size + 1) * 4 > slots.length * 3) {
+                grow();
+            }
+            int mask = slots.length - 1;
+            int i = hash(msb, lsb) & mask;
+            while (slots[i] != 0) {
+                if (msbs[i] == msb && lsbs[i] == lsb) {
+                    slots[i] = slot + 1;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            msbs[i] = msb;
+            lsbs[i] = lsb;
+            slots[i] = slot + 1;
+            size++;
+        }
+
+        int remove(long msb, long lsb) {
+            int mask = slots.length - 1;
+            int i = hash(msb, lsb) & mask;
+            while (slots[i] != 0 && !(msbs[i] == msb && lsbs[i] == lsb)) {
+                i = (i + 1) & mask;
+            }
+            if (slots[i] == 0) {
+                return -1;
+            }
+            int removed = slots[i] - 1;
+            slots[i] = 0;
+            size--;
+            for (int j = (i + 1) & mask; slots[j] != 0; j = (j + 1) & mask) {
+                int home = hash(msbs[j], lsbs[j]) & mask;
+                boolean between = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+                if (!between) {
+                    msbs[i] = msbs[j];
+                    lsbs[i] = lsbs[j];
+                    slots[i] = slots[j];
+                    slots[j] = 0;
+                    i = j;
+                }
+            }
+            return removed;
+        }
+
+        private void grow() {
+            long[] oldMsbs = msbs;
+            long[] oldLsbs = lsbs;
+            int[] oldSlots = slots;
+            allocate(slots.length * 2);
+            size = 0;
+            for (int i = 0; i < oldSlots.length; i++) {
+                if (oldSlots[i] != 0) {
+                    put(oldMsbs[i], oldLsbs[i], oldSlots[i] - 1);
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            msbs = new long[capacity];
+            lsbs = new long[capacity];
+            slots = new int[capacity];
+        }
+
+        private static int hash(long msb, long lsb) {
+            long h = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package edu.study.repository;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Immutable hash array mapped trie from task id to an int slot. Updates copy one node per level,
+ * so a new version costs O(log32 n) and shares the rest of the trie.
+ */
+final class PersistentUuidIndex {
+    static final int MISSING = -1;
+    static final PersistentUuidIndex EMPTY = new PersistentUuidIndex(null);
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private final Object root;
+
+    private PersistentUuidIndex(Object root) {
+        this.root = root;
+    }
+
+    int get(UUID key) {
+        int hash = hash(key);
+        Object node = root;
+        int shift = 0;
+        while (node != null) {
+            if (node instanceof Leaf leaf) {
+                return leaf.hash == hash && Objects.equals(leaf.key, key) ? leaf.value : MISSING;
+            }
+            if (node instanceof Collision collision) {
+                for (Leaf leaf : collision.leaves) {
+                    if (Objects.equals(leaf.key, key)) {
+                        return leaf.value;
+                    }
+                }
+                return MISSING;
+            }
+            Branch branch = (Branch) node;
+            int bit = bit(hash, shift);
+            if ((branch.bitmap & bit) == 0) {
+                return MISSING;
+            }
+            node = branch.children[branch.slot(bit)];
+            shift += BITS;
+        }
+        return MISSING;
+    }
+
+    PersistentUuidIndex plus(UUID key, int value) {
+        Object updated = put(root, 0, new Leaf(hash(key), key, value));
+        return updated == root ? this : new PersistentUuidIndex(updated);
+    }
+
+    PersistentUuidIndex minus(UUID key) {
+        Object updated = remove(root, 0, hash(key), key);
+        return updated == root ? this : new PersistentUuidIndex(updated);
+    }
+
+    private static Object put(Object node, int shift, Leaf leaf) {
+        if (node == null) {
+            return leaf;
+        }
+        if (node instanceof Leaf existing) {
+            if (existing.hash == leaf.hash && Objects.equals(existing.key, leaf.key)) {
+                return existing.value == leaf.value ? existing : leaf;
+            }
+            if (existing.hash == leaf.hash) {
+                return new Collision(leaf.hash, new Leaf[]{existing, leaf});
+            }
+            return split(shift, existing, existing.hash, leaf);
+        }
+        if (node instanceof Collision collision) {
+            if (collision.hash != leaf.hash) {
+                return split(shift, collision, collision.hash, leaf);
+            }
+            Leaf[] leaves = collision.leaves;
+            for (int i = 0; i < leaves.length; i++) {
+                if (Objects.equals(leaves[i].key, leaf.key)) {
+                    Leaf[] copy = leaves.clone();
+                    copy[i] = leaf;
+                    return new Collision(leaf.hash, copy);
+                }
+            }
+            Leaf[] grown = Arrays.copyOf(leaves, leaves.length + 1);
+            grown[leaves.length] = leaf;
+            return new Collision(leaf.hash, grown);
+        }
+        Branch branch = (Branch) node;
+        int bit = bit(leaf.hash, shift);
+        int slot = branch.slot(bit);
+        if ((branch.bitmap & bit) == 0) {
+            Object[] children = new Object[branch.children.length + 1];
+            System.arraycopy(branch.children, 0, children, 0, slot);
+            children[slot] = leaf;
+            System.arraycopy(branch.children, slot, children, slot + 1, branch.children.length - slot);
+            return new Branch(branch.bitmap | bit, children);
+        }
+        Object child = branch.children[slot];
+        Object updated = put(child, shift + BITS, leaf);
+        if (updated == child) {
+            return branch;
+        }
+        Object[] children = branch.children.clone();
+        children[slot] = updated;
+        return new Branch(branch.bitmap, children);
+    }
+
+    /**
+     * Builds the smallest branch chain that separates an existing entry from a leaf with a different hash.
+     */
+    private static Object split(int shift, Object existing, int existingHash, Leaf leaf) {
+        int existingBit = bit(existingHash, shift);
+        int leafBit = bit(leaf.hash, shift);
+        if (existingBit == leafBit) {
+            return new Branch(existingBit, new Object[]{split(shift + BITS, existing, existingHash, leaf)});
+        }
+        Object[] children = Integer.compareUnsigned(existingBit, leafBit) < 0
+                ? new Object[]{existing, leaf} : new Object[]{leaf, existing};
+        return new Branch(existingBit | leafBit, children);
+    }
+
+    private static Object remove(Object node, int shift, int hash, UUID key) {
+        if (node == null) {
+            return null;
+        }
+        if (node instanceof Leaf leaf) {
+            return leaf.hash == hash && Objects.equals(leaf.key, key) ? null : leaf;
+        }
+        if (node instanceof Collision collision) {
+            if (collision.hash != hash) {
+                return collision;
+            }
+            Leaf[] leaves = collision.leaves;
+            for (int i = 0; i < leaves.length; i++) {
+                if (Objects.equals(leaves[i].key, key)) {
+                    if (leaves.length == 2) {
+                        return leaves[1 - i];
+                    }
+                    Leaf[] shrunk = new Leaf[leaves.length - 1];
+                    System.arraycopy(leaves, 0, shrunk, 0, i);
+                    System.arraycopy(leaves, i + 1, shrunk, i, leaves.length - i - 1);
+                    return new Collision(hash, shrunk);
+                }
+            }
+            return collision;
+        }
+        Branch branch = (Branch) node;
+        int bit = bit(hash, shift);
+        if ((branch.bitmap & bit) == 0) {
+            return branch;
+        }
+        int slot = branch.slot(bit);
+        Object child = branch.children[slot];
+        Object updated = remove(child, shift + BITS, hash, key);
+        if (updated == child) {
+            return branch;
+        }
+        if (updated == null) {
+            if (branch.children.length == 1) {
+                return null;
+            }
+            Object[] children = new Object[branch.children.length - 1];
+            System.arraycopy(branch.children, 0, children, 0, slot);
+            System.arraycopy(branch.children, slot + 1, children, slot, children.length - slot);
+            Branch shrunk = new Branch(branch.bitmap & ~bit, children);
+            // a branch left with a single leaf collapses into that leaf
+            return children.length == 1 && !(children[0] instanceof Branch) ? children[0] : shrunk;
+        }
+        if (branch.children.length == 1 && !(updated instanceof Branch)) {
+            return updated;
+        }
+        Object[] children = branch.children.clone();
+        children[slot] = updated;
+        return new Branch(branch.bitmap, children);
+    }
+
+    private static int hash(UUID key) {
+        int h = Objects.hashCode(key);
+        return h ^ (h >>> 16);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private record Leaf(int hash, UUID key, int value) {
+    }
+
+    private record Collision(int hash, Leaf[] leaves) {
+    }
+
+    private static final class Branch {
+        final int bitmap;
+        final Object[] children;
+
+        Branch(int bitmap, Object[] children) {
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+
+        int slot(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package edu.study.repository;
+
+import java.util.Arrays;
+
+/**
+ * Immutable 32-way trie of elements indexed 0..size-1. Every update copies only the path to the touched leaf,
+ * so a new version costs O(log32 n) and shares everything else with the old one.
+ */
+final class PersistentVector<T> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, 0, new Object[0]);
+
+    private final int size;
+    private final int shift;
+    private final Object[] root;
+
+    private PersistentVector(int size, int shift, Object[] root) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> PersistentVector<T> empty() {
+        return (PersistentVector<T>) EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return (T) node[index & MASK];
+    }
+
+    PersistentVector<T> set(int index, T value) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return new PersistentVector<>(size, shift, set(shift, root, index, value));
+    }
+
+    PersistentVector<T> push(T value) {
+        if (size == 1 << (shift + BITS)) {
+            // root is full: grow a level
+            Object[] newRoot = {root, path(shift, value)};
+            return new PersistentVector<>(size + 1, shift + BITS, newRoot);
+        }
+        return new PersistentVector<>(size + 1, shift, push(shift, root, size, value));
+    }
+
+    /**
+     * Drops the last element.
+     */
+    PersistentVector<T> pop() {
+        if (size == 0) {
+            throw new IllegalStateException("Vector is empty");
+        }
+        if (size == 1) {
+            return empty();
+        }
+        Object[] newRoot = pop(shift, root, size - 1);
+        int newShift = shift;
+        while (newShift > 0 && newRoot.length == 1) {
+            newRoot = (Object[]) newRoot[0];
+            newShift -= BITS;
+        }
+        return new PersistentVector<>(size - 1, newShift, newRoot);
+    }
+
+    private static Object[] set(int level, Object[] node, int index, Object value) {
+        Object[] copy = node.clone();
+        int slot = (index >>> level) & MASK;
+        copy[slot] = level == 0 ? value : set(level - BITS, (Object[]) node[slot], index, value);
+        return copy;
+    }
+
+    private static Object[] push(int level, Object[] node, int index, Object value) {
+        int slot = (index >>> level) & MASK;
+        // nodes are only as long as their used prefix
+        Object[] copy = Arrays.copyOf(node, Math.max(node.length, slot + 1));
+        if (level == 0) {
+            copy[slot] = value;
+        } else if (slot < node.length) {
+            copy[slot] = push(level - BITS, (Object[]) node[slot], index, value);
+        } else {
+            copy[slot] = path(level - BITS, value);
+        }
+        return copy;
+    }
+
+    private static Object[] pop(int level, Object[] node, int index) {
+        int slot = (index >>> level) & MASK;
+        if (level == 0) {
+            return slot == 0 ? null : Arrays.copyOf(node, slot);
+        }
+        Object[] child = pop(level - BITS, (Object[]) node[slot], index);
+        if (child == null) {
+            return slot == 0 ? null : Arrays.copyOf(node, slot);
+        }
+        Object[] copy = node.clone();
+        copy[slot] = child;
+        return copy;
+    }
+
+    private static Object[] path(int level, Object value) {
+        return level == 0 ? new Object[]{value} : new Object[]{path(level - BITS, value)};
+    }
+}
@@ -0,0 +1,52 @@
+package edu.study.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Keeps the rollups in their own JSON file next to the tasks. The file is derived data: anything missing,
+ * unreadable or written by another format version is reported as absent and rebuilt by the caller.
+ */
+public class RollupRepository {
+    public static final int FORMAT_VERSION = 1;
+
+    private final Path path;
+    private final ObjectMapper mapper;
+    private final SnapshotWriter writer;
+
+    public RollupRepository(Path path) {
+        this.path = path;
+        this.mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.writer = new SnapshotWriter(path, Duration.ZERO);
+    }
+
+    public synchronized Optional<RollupStore> load() {
+        try {
+            if (!Files.exists(path) || Files.size(path) == 0) {
+                return Optional.empty();
+            }
+            RollupStore store = mapper.readValue(path.toFile(), RollupStore.class);
+            return store.getVersion() == FORMAT_VERSION ? Optional.of(store) : Optional.empty();
+        } catch (IOException e) {
+            System.err.println("[storage] Ignoring unreadable rollups " + path + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public synchronized void save(RollupStore store) {
+        store.setVersion(FORMAT_VERSION);
+        try {
+            writer.write(mapper.writeValueAsBytes(store));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write rollups: " + path, e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package edu.study.repository;
+
+import edu.study.model.RollupBucket;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * On-disk form of the productivity rollups. The fingerprint sums a hash of every completed task the buckets were
+ * built from, so a store left behind by a crash or an edited tasks file can be told apart from a current one.
+ */
+public class RollupStore {
+    private int version;
+    private long fingerprint;
+    private List<RollupBucket> daily = new ArrayList<>();
+    private List<RollupBucket> weekly = new ArrayList<>();
+    private List<RollupBucket> monthly = new ArrayList<>();
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(long fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public List<RollupBucket> getDaily() {
+        return daily;
+    }
+
+    public void setDaily(List<RollupBucket> daily) {
+        this.daily = daily;
+    }
+
+    public List<RollupBucket> getWeekly() {
+        return weekly;
+    }
+
+    public void setWeekly(List<RollupBucket> weekly) {
+        this.weekly = weekly;
+    }
+
+    public List<RollupBucket> getMonthly() {
+        return monthly;
+    }
+
+    public void setMonthly(List<RollupBucket> monthly) {
+        this.monthly = monthly;
+    }
+}
@@ -0,0 +1,49 @@
+package edu.study.repository;
+
+import java.nio.file.Path;
+
+public final class SnapshotConverter {
+    private SnapshotConverter() {
+    }
+
+    public static void jsonToBinary(Path jsonPath, Path binaryPath) {
+        copy(new JsonDataRepository(jsonPath), new BinaryDataRepository(binaryPath));
+    }
+
+    public static void binaryToJson(Path binaryPath, Path jsonPath) {
+        copy(new BinaryDataRepository(binaryPath), new JsonDataRepository(jsonPath));
+    }
+
+    public static void copy(DataRepository from, DataRepository to) {
+        to.save(from.load());
+    }
+
+    /**
+     * Replays any journal left over from a journaled run into the snapshot and truncates it, so a later run in
+     * another mode neither misses those edits nor has them replayed over newer data.
+     */
+    public static void foldJournal(DataRepository snapshot, TaskJournal journal) {
+        DataStore store = snapshot.load();
+        if (journal.replay(store) > 0 || journal.isTorn()) {
+            snapshot.save(store);
+        }
+        journal.truncate();
+    }
+
+    /**
+     * Replaces the record store's tasks with the snapshot's.
+     */
+    public static void snapshotToRecords(DataRepository snapshot, MappedTaskRepository records) {
+        records.saveAll(snapshot.load().getTasks());
+        records.persist();
+    }
+
+    /**
+     * Replaces the snapshot's tasks with the record store's; courses and the rest of the snapshot are kept.
+     */
+    public static void recordsToSnapshot(MappedTaskRepository records, DataRepository snapshot) {
+        DataStore store = snapshot.load();
+        store.setTasks(records.findAll());
+        snapshot.save(store);
+    }
+}
@@ -0,0 +1,200 @@
+package edu.study.repository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes snapshots crash-safely: temp file, fsync, atomic rename.
+ * Snapshots submitted within the commit window are coalesced so only the latest one hits the disk.
+ * A grouped commit that fails stays pending and is tried again after a delay that doubles with each failure in a
+ * row; flush tries it at once and throws if it still fails.
+ */
+public class SnapshotWriter {
+    private static final long MIN_BACKOFF_MILLIS = 100;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    private final Path target;
+    private final Path tempPath;
+    private final long windowMillis;
+    private final Object writeLock = new Object();
+    private final ScheduledExecutorService scheduler;
+
+    private byte[] pending;
+    private int pendingMutations;
+    private long firstPendingNanos;
+    private boolean commitScheduled;
+    private long backoffMillis = MIN_BACKOFF_MILLIS;
+
+    private long commits;
+    private long mutations;
+    private int lastBatchSize;
+    private int maxBatchSize;
+    private long lastLatencyMillis;
+    private long lastWriteMillis;
+    private long bytesWritten;
+
+    public SnapshotWriter(Path target, Duration commitWindow) {
+        this.target = target;
+        this.tempPath = target.resolveSibling(target.getFileName() + ".tmp");
+        this.windowMillis = commitWindow != null ? Math.max(0, commitWindow.toMillis()) : 0;
+        this.scheduler = windowMillis > 0 ? Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "snapshot-writer");
+            t.setDaemon(true);
+            return t;
+        }) : null;
+    }
+
+    /**
+     * Writes immediately; any older snapshot still waiting in the window is superseded.
+     */
+    public void write(byte[] snapshot) {
+        synchronized (writeLock) {
+            int batch;
+            long since;
+            synchronized (this) {
+                batch = pendingMutations + 1;
+                since = pendingMutations > 0 ? firstPendingNanos : System.nanoTime();
+                pending = null;
+                pendingMutations = 0;
+            }
+            commit(snapshot, batch, since);
+        }
+    }
+
+    public void submit(byte[] snapshot) {
+        if (scheduler == null) {
+            write(snapshot);
+            return;
+        }
+        synchronized (this) {
+            if (pendingMutations == 0) {
+                firstPendingNanos = System.nanoTime();
+            }
+            pending = snapshot;
+            pendingMutations++;
+            if (!commitScheduled) {
+                commitScheduled = true;
+                scheduler.schedule(this::commitPending, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Blocks until every submitted snapshot is durable; throws the write's failure if it cannot be made so.
+     */
+    public void flush() {
+        IllegalStateException failure = commitPending();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    public synchronized CommitStats stats() {
+        return new CommitStats(commits, mutations, lastBatchSize, maxBatchSize,
+                lastLatencyMillis, lastWriteMillis, bytesWritten);
+    }
+
+    /**
+     * Commits whatever is pending; on failure puts it back, schedules another try, and returns the failure.
+     */
+    private IllegalStateException commitPending() {
+        synchronized (writeLock) {
+            byte[] snapshot;
+            int batch;
+            long since;
+            synchronized (this) {
+                commitScheduled = false;
+                snapshot = pending;
+                batch = pendingMutations;
+                since = firstPendingNanos;
+                pending = null;
+                pendingMutations = 0;
+            }
+            if (snapshot == null) {
+                return null;
+            }
+            try {
+                commit(snapshot, batch, since);
+                synchronized (this) {
+                    backoffMillis = MIN_BACKOFF_MILLIS;
+                }
+                return null;
+            } catch (IllegalStateException e) {
+                synchronized (this) {
+                    if (pending == null) {
+                        pending = snapshot;
+                        firstPendingNanos = since;
+                    }
+                    pendingMutations += batch;
+                    if (scheduler != null && !commitScheduled) {
+                        commitScheduled = true;
+                        scheduler.schedule(this::commitPending, backoffMillis, TimeUnit.MILLISECONDS);
+                        backoffMillis = Math.min(MAX_BACKOFF_MILLIS, backoffMillis * 2);
+                    }
+                }
+                return e;
+            }
+        }
+    }
+
+    private void commit(byte[] snapshot, int batch, long sinceNanos) {
+        long start = System.nanoTime();
+        writeAtomically(snapshot);
+        long end = System.nanoTime();
+        synchronized (this) {
+            commits++;
+            mutations += batch;
+            lastBatchSize = batch;
+            maxBatchSize = Math.max(maxBatchSize, batch);
+            lastWriteMillis = TimeUnit.NANOSECONDS.toMillis(end - start);
+            lastLatencyMillis = TimeUnit.NANOSECONDS.toMillis(end - sinceNanos);
+            bytesWritten += snapshot.length;
+        }
+    }
+
+    private void writeAtomically(byte[] snapshot) {
+        try {
+            if (target.getParent() != null) {
+                Files.createDirectories(target.getParent());
+            }
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(snapshot);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(tempPath, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            syncDirectory();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write storage file: " + target, e);
+        }
+    }
+
+    private void syncDirectory() {
+        Path dir = target.toAbsolutePath().getParent();
+        if (dir == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+            // not every platform lets a directory be opened for fsync
+        }
+    }
+}
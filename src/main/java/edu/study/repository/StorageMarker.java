@@ -0,0 +1,81 @@
+package edu.study.repository;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * Records which copy of the data is authoritative: the snapshot format last written (json or binary) and whether
+ * the tasks live in the memory-mapped record store instead of the snapshot. A run with a different STORAGE_FORMAT
+ * or STORAGE_MODE converts from what this names, rather than trusting whichever file happens to exist.
+ * Written only after a conversion completes, so a crash part way through repeats it on the next start.
+ */
+public class StorageMarker {
+    public static final String JSON = "json";
+    public static final String BINARY = "binary";
+
+    private static final String FORMAT = "format";
+    private static final String TASKS = "tasks";
+    private static final String SNAPSHOT = "snapshot";
+    private static final String RECORDS = "records";
+
+    private final Path path;
+    private final SnapshotWriter writer;
+    private String format;
+    private boolean tasksInRecords;
+
+    /**
+     * Reads the marker at path; format and tasksInRecords are assumed when none has been written yet.
+     */
+    public StorageMarker(Path path, String format, boolean tasksInRecords) {
+        this.path = path;
+        this.writer = new SnapshotWriter(path, Duration.ZERO);
+        this.format = format;
+        this.tasksInRecords = tasksInRecords;
+        if (!Files.exists(path)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read storage marker: " + path, e);
+        }
+        this.format = BINARY.equals(properties.getProperty(FORMAT)) ? BINARY : JSON;
+        this.tasksInRecords = RECORDS.equals(properties.getProperty(TASKS));
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public boolean isTasksInRecords() {
+        return tasksInRecords;
+    }
+
+    public void setTasksInRecords(boolean tasksInRecords) {
+        this.tasksInRecords = tasksInRecords;
+    }
+
+    public void save() {
+        Properties properties = new Properties();
+        properties.setProperty(FORMAT, format);
+        properties.setProperty(TASKS, tasksInRecords ? RECORDS : SNAPSHOT);
+        StringWriter text = new StringWriter();
+        try {
+            properties.store(text, null);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write storage marker: " + path, e);
+        }
+        writer.write(text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,151 @@
+package edu.study.repository;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import edu.study.model.Course;
+import edu.study.model.Task;
+import edu.study.model.TaskStatus;
+import edu.study.model.TimeBlock;
+import edu.study.model.User;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Reads tasks.json token by token, section by section.
+ * Open tasks are bound in the first pass; completed ones are only marked and bound by a second pass in the background.
+ */
+public class StreamingDataStoreLoader {
+    private final ObjectMapper mapper;
+
+    public StreamingDataStoreLoader(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    public LoadResult load(Path path, Executor background) {
+        DataStore store = new DataStore();
+        try {
+            if (!Files.exists(path) || Files.size(path) == 0) {
+                return new LoadResult(store, CompletableFuture.completedFuture(new ArrayList<>()));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read storage file: " + path, e);
+        }
+        BitSet done = new BitSet();
+        try (JsonParser parser = mapper.getFactory().createParser(path.toFile())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalStateException("Unexpected storage format: " + path);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String section = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                switch (section) {
+                    case "tasks" -> store.setTasks(readOpenTasks(parser, done));
+                    case "courses" -> store.setCourses(mapper.readValue(parser, new TypeReference<List<Course>>() { }));
+                    case "timeBlocks" -> store.setTimeBlocks(mapper.readValue(parser, new TypeReference<List<TimeBlock>>() { }));
+                    case "users" -> store.setUsers(mapper.readValue(parser, new TypeReference<List<User>>() { }));
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read storage file: " + path, e);
+        }
+        if (done.isEmpty()) {
+            return new LoadResult(store, CompletableFuture.completedFuture(new ArrayList<>()));
+        }
+        return new LoadResult(store, CompletableFuture.supplyAsync(() -> readCompletedTasks(path, done), background));
+    }
+
+    private List<Task> readOpenTasks(JsonParser parser, BitSet done) throws IOException {
+        List<Task> open = new ArrayList<>();
+        int index = 0;
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            TokenBuffer buffer = new TokenBuffer(parser);
+            buffer.copyCurrentStructure(parser);
+            if (isDone(buffer)) {
+                done.set(index);
+            } else {
+                try (JsonParser element = buffer.asParser(mapper)) {
+                    open.add(mapper.readValue(element, Task.class));
+                }
+            }
+            index++;
+        }
+        return open;
+    }
+
+    private boolean isDone(TokenBuffer buffer) throws IOException {
+        try (JsonParser element = buffer.asParser()) {
+            element.nextToken();
+            while (element.nextToken() == JsonToken.FIELD_NAME) {
+                String field = element.currentName();
+                element.nextToken();
+                if ("status".equals(field)) {
+                    return TaskStatus.DONE.name().equals(element.getValueAsString());
+                }
+                element.skipChildren();
+            }
+        }
+        return false;
+    }
+
+    private List<Task> readCompletedTasks(Path path, BitSet done) {
+        List<Task> completed = new ArrayList<>(done.cardinality());
+        try (JsonParser parser = mapper.getFactory().createParser(path.toFile())) {
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String section = parser.currentName();
+                parser.nextToken();
+                if (!"tasks".equals(section)) {
+                    parser.skipChildren();
+                    continue;
+                }
+                int index = 0;
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    if (done.get(index)) {
+                        completed.add(mapper.readValue(parser, Task.class));
+                    } else {
+                        parser.skipChildren();
+                    }
+                    index++;
+                }
+                break;
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read storage file: " + path, e);
+        }
+        return completed;
+    }
+
+    public static class LoadResult {
+        private final DataStore store;
+        private final CompletableFuture<List<Task>> completedTasks;
+
+        public LoadResult(DataStore store, CompletableFuture<List<Task>> completedTasks) {
+            this.store = store;
+            this.completedTasks = completedTasks;
+        }
+
+        /**
+         * Courses, time blocks, users and every task that is not DONE.
+         */
+        public DataStore getStore() {
+            return store;
+        }
+
+        public CompletableFuture<List<Task>> getCompletedTasks() {
+            return completedTasks;
+        }
+    }
+}
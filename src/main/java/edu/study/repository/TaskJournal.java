@@ -0,0 +1,214 @@
+package edu.study.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import edu.study.model.Task;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Append-only log of task mutations, one JSON record per line.
+ * Records are replayed on top of the last snapshot; a torn trailing line left by a crash is ignored, and
+ * {@link #isTorn()} tells the caller to fold the journal into a snapshot before anything is appended after it.
+ */
+public class TaskJournal {
+    public static final String OP_PUT = "PUT";
+    public static final String OP_DELETE = "DELETE";
+
+    private final Path journalPath;
+    private final ObjectMapper mapper;
+    private int records;
+    private boolean torn;
+    private long bytesWritten;
+
+    public TaskJournal(Path journalPath) {
+        this.journalPath = journalPath;
+        this.mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    public synchronized void appendPut(Task task) {
+        append(List.of(new Record(OP_PUT, task.getTaskId(), task)));
+    }
+
+    public synchronized void appendDelete(UUID taskId) {
+        append(List.of(new Record(OP_DELETE, taskId, null)));
+    }
+
+    /**
+     * Appends every record with a single write and fsync.
+     */
+    public synchronized void appendAll(List<Task> puts, List<UUID> deletes) {
+        List<Record> batch = new ArrayList<>(puts.size() + deletes.size());
+        for (Task task : puts) {
+            batch.add(new Record(OP_PUT, task.getTaskId(), task));
+        }
+        for (UUID id : deletes) {
+            batch.add(new Record(OP_DELETE, id, null));
+        }
+        if (!batch.isEmpty()) {
+            append(batch);
+        }
+    }
+
+    public synchronized int replay(DataStore store) {
+        records = 0;
+        torn = false;
+        if (!Files.exists(journalPath)) {
+            return 0;
+        }
+        Map<UUID, Task> byId = new LinkedHashMap<>();
+        if (store.getTasks() != null) {
+            for (Task task : store.getTasks()) {
+                byId.put(task.getTaskId(), task);
+            }
+        }
+        byte[] data;
+        try {
+            data = Files.readAllBytes(journalPath);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read journal: " + journalPath, e);
+        }
+        int start = 0;
+        while (start < data.length) {
+            int end = start;
+            while (end < data.length && data[end] != '\n') {
+                end++;
+            }
+            // no newline means the append was cut short; a record that still parses is kept, but the line is torn
+            torn = end == data.length;
+            String line = new String(data, start, end - start, StandardCharsets.UTF_8);
+            start = end + 1;
+            if (line.isBlank()) {
+                continue;
+            }
+            Record record;
+            try {
+                record = mapper.readValue(line, Record.class);
+            } catch (JsonProcessingException e) {
+                // incomplete tail from an interrupted append
+                torn = true;
+                break;
+            }
+            apply(byId, record);
+            records++;
+        }
+        store.setTasks(new ArrayList<>(byId.values()));
+        return records;
+    }
+
+    /**
+     * Whether the last replay stopped at a torn line. Appending behind one would glue the next record onto it
+     * and make every later replay stop there, so the journal has to be folded and truncated first.
+     */
+    public synchronized boolean isTorn() {
+        return torn;
+    }
+
+    public synchronized void truncate() {
+        try {
+            Files.deleteIfExists(journalPath);
+            records = 0;
+            torn = false;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to truncate journal: " + journalPath, e);
+        }
+    }
+
+    public synchronized int size() {
+        return records;
+    }
+
+    public synchronized long bytesWritten() {
+        return bytesWritten;
+    }
+
+    private void apply(Map<UUID, Task> byId, Record record) {
+        if (record.getTaskId() == null) {
+            return;
+        }
+        if (OP_DELETE.equals(record.getOp())) {
+            byId.remove(record.getTaskId());
+        } else if (OP_PUT.equals(record.getOp()) && record.getTask() != null) {
+            byId.put(record.getTaskId(), record.getTask());
+        }
+    }
+
+    private void append(List<Record> batch) {
+        try {
+            if (journalPath.getParent() != null) {
+                Files.createDirectories(journalPath.getParent());
+            }
+            StringBuilder lines = new StringBuilder();
+            for (Record record : batch) {
+                lines.append(mapper.writeValueAsString(record)).append('\n');
+            }
+            byte[] line = lines.toString().getBytes(StandardCharsets.UTF_8);
+            try (FileChannel channel = FileChannel.open(journalPath,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(line);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+            records += batch.size();
+            bytesWritten += line.length;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to append journal: " + journalPath, e);
+        }
+    }
+
+    public static class Record {
+        private String op;
+        private UUID taskId;
+        private Task task;
+
+        public Record() {
+            // for Jackson
+        }
+
+        public Record(String op, UUID taskId, Task task) {
+            this.op = op;
+            this.taskId = taskId;
+            this.task = task;
+        }
+
+        public String getOp() {
+            return op;
+        }
+
+        public void setOp(String op) {
+            this.op = op;
+        }
+
+        public UUID getTaskId() {
+            return taskId;
+        }
+
+        public void setTaskId(UUID taskId) {
+            this.taskId = taskId;
+        }
+
+        public Task getTask() {
+            return task;
+        }
+
+        public void setTask(Task task) {
+            this.task = task;
+        }
+    }
+}
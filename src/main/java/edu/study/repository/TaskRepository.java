@@ -4,14 +4,31 @@ import edu.study.model.Task;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface TaskRepository {
     List<Task> findAll();
 
+    /**
+     * Completed tasks that were still loading when the repository opened; they join findAll() once this completes.
+     */
+    CompletableFuture<List<Task>> completedTasks();
+
+    /**
+     * The live table behind findAll(), for a caller that wants to work on it instead of keeping its own copy.
+     * Once handed out the caller owns every change to it, and saves only persist; empty when the store keeps no table.
+     */
+    Optional<TaskTable> sharedTable();
+
     Optional<Task> findById(UUID id);
 
     Task save(Task task);
 
+    /**
+     * Persists only the given changed records and deletions; saveAll remains the full-save fallback.
+     */
+    void saveChanges(List<Task> changed, List<UUID> deleted);
+
     void saveAll(List<Task> tasks);
 
     boolean delete(UUID id);
@@ -19,4 +36,8 @@ public interface TaskRepository {
     void refresh();
 
     void persist();
+
+    void flush();
+
+    WriteStats writeStats();
 }
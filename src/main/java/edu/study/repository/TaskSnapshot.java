@@ -0,0 +1,152 @@
+package edu.study.repository;
+
+import edu.study.model.Task;
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.UUID;
+
+/**
+ * Immutable version of a task set: a persistent vector of tasks plus a persistent id index into it.
+ * Readers can hold on to a snapshot and iterate it without locks or copying; with and without return a new
+ * version in O(log n) that shares almost all structure with this one.
+ * A removed task leaves an empty slot, so the remaining tasks keep their order; once empty slots make up half the
+ * vector, the next removal compacts it, which keeps removals O(log n) amortized. Positional reads on a snapshot
+ * with empty slots copy the live tasks out once and then index that copy.
+ * TaskService never edits a task once it is in a snapshot, it publishes an edited copy instead, so a snapshot is
+ * frozen all the way down and can be serialized on another thread as is.
+ */
+public final class TaskSnapshot extends AbstractList<Task> implements RandomAccess {
+    public static final TaskSnapshot EMPTY = new TaskSnapshot(PersistentVector.empty(), PersistentUuidIndex.EMPTY, 0);
+
+    // null marks a removed task's slot
+    private final PersistentVector<Task> tasks;
+    private final PersistentUuidIndex slots;
+    private final int size;
+    private volatile Task[] dense;
+
+    private TaskSnapshot(PersistentVector<Task> tasks, PersistentUuidIndex slots, int size) {
+        this.tasks = tasks;
+        this.slots = slots;
+        this.size = size;
+    }
+
+    @Override
+    public Task get(int index) {
+        if (size == tasks.size()) {
+            return tasks.get(index);
+        }
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return dense()[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Walks the vector directly, stepping over empty slots.
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<>() {
+            private int slot = skipEmpty(0);
+
+            @Override
+            public boolean hasNext() {
+                return slot < tasks.size();
+            }
+
+            @Override
+            public Task next() {
+                if (slot >= tasks.size()) {
+                    throw new NoSuchElementException();
+                }
+                Task task = tasks.get(slot);
+                slot = skipEmpty(slot + 1);
+                return task;
+            }
+        };
+    }
+
+    public Task find(UUID id) {
+        int slot = slots.get(id);
+        return slot == PersistentUuidIndex.MISSING ? null : tasks.get(slot);
+    }
+
+    public boolean containsId(UUID id) {
+        return slots.get(id) != PersistentUuidIndex.MISSING;
+    }
+
+    /**
+     * Replaces the task with the same id in place, or appends it.
+     */
+    public TaskSnapshot with(Task task) {
+        int slot = slots.get(task.getTaskId());
+        if (slot != PersistentUuidIndex.MISSING) {
+            return new TaskSnapshot(tasks.set(slot, task), slots, size);
+        }
+        return new TaskSnapshot(tasks.push(task), slots.plus(task.getTaskId(), tasks.size()), size + 1);
+    }
+
+    /**
+     * Removes the task, leaving the others in their order.
+     */
+    public TaskSnapshot without(UUID id) {
+        int slot = slots.get(id);
+        if (slot == PersistentUuidIndex.MISSING) {
+            return this;
+        }
+        if (size == 1) {
+            return EMPTY;
+        }
+        PersistentUuidIndex index = slots.minus(id);
+        if (slot == tasks.size() - 1) {
+            return new TaskSnapshot(tasks.pop(), index, size - 1);
+        }
+        if ((size - 1) * 2 <= tasks.size()) {
+            return compact(slot);
+        }
+        return new TaskSnapshot(tasks.set(slot, null), index, size - 1);
+    }
+
+    /**
+     * A fresh snapshot of the live tasks except the one in skip, with no empty slots.
+     */
+    private TaskSnapshot compact(int skip) {
+        PersistentVector<Task> vector = PersistentVector.empty();
+        PersistentUuidIndex index = PersistentUuidIndex.EMPTY;
+        for (int slot = 0; slot < tasks.size(); slot++) {
+            Task task = tasks.get(slot);
+            if (task != null && slot != skip) {
+                index = index.plus(task.getTaskId(), vector.size());
+                vector = vector.push(task);
+            }
+        }
+        return new TaskSnapshot(vector, index, vector.size());
+    }
+
+    private Task[] dense() {
+        Task[] copy = dense;
+        if (copy == null) {
+            copy = new Task[size];
+            int next = 0;
+            for (Task task : this) {
+                copy[next++] = task;
+            }
+            dense = copy;
+        }
+        return copy;
+    }
+
+    private int skipEmpty(int slot) {
+        while (slot < tasks.size() && tasks.get(slot) == null) {
+            slot++;
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,98 @@
+package edu.study.repository;
+
+import edu.study.model.Task;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Task set keyed by id, the one in-memory copy of the tasks: the file repository loads into it and the service
+ * works on the same instance. The contents are published as an immutable {@link TaskSnapshot}: reads are lock-free
+ * and never copy, writes swap in a new version in O(log n). Each write is atomic on its own, so the repository merging
+ * history never loses a concurrent service write; keeping the service's indexes in step is the service's job.
+ */
+public class TaskTable {
+    private final AtomicReference<TaskSnapshot> current = new AtomicReference<>(TaskSnapshot.EMPTY);
+
+    public TaskTable() {
+    }
+
+    public TaskTable(Collection<Task> tasks) {
+        putAll(tasks);
+    }
+
+    public Task get(UUID id) {
+        return current.get().find(id);
+    }
+
+    public boolean contains(UUID id) {
+        return current.get().containsId(id);
+    }
+
+    /**
+     * Replaces a task with the same id in place, keeping its position; new ids go to the end.
+     */
+    public Task put(Task task) {
+        return current.getAndUpdate(snapshot -> snapshot.with(task)).find(task.getTaskId());
+    }
+
+    public void putAll(Collection<Task> tasks) {
+        current.updateAndGet(snapshot -> {
+            for (Task task : tasks) {
+                snapshot = snapshot.with(task);
+            }
+            return snapshot;
+        });
+    }
+
+    /**
+     * Adds the task unless its id is already present; returns whichever task the table holds afterwards.
+     */
+    public Task putIfAbsent(Task task) {
+        UUID id = task.getTaskId();
+        return current.updateAndGet(snapshot -> snapshot.containsId(id) ? snapshot : snapshot.with(task)).find(id);
+    }
+
+    /**
+     * Publishes the given tasks as the whole contents in one step, so readers never see a half-filled table.
+     */
+    public void replaceAll(Collection<Task> tasks) {
+        TaskSnapshot snapshot = TaskSnapshot.EMPTY;
+        for (Task task : tasks) {
+            snapshot = snapshot.with(task);
+        }
+        current.set(snapshot);
+    }
+
+    public Task remove(UUID id) {
+        return current.getAndUpdate(snapshot -> snapshot.without(id)).find(id);
+    }
+
+    public int size() {
+        return current.get().size();
+    }
+
+    public boolean isEmpty() {
+        return current.get().isEmpty();
+    }
+
+    public void clear() {
+        current.set(TaskSnapshot.EMPTY);
+    }
+
+    /**
+     * The current version; it never changes, later writes publish a new one.
+     */
+    public TaskSnapshot snapshot() {
+        return current.get();
+    }
+
+    public Collection<Task> values() {
+        return current.get();
+    }
+
+    public List<Task> toList() {
+        return current.get();
+    }
+}
@@ -0,0 +1,35 @@
+package edu.study.repository;
+
+public class WriteStats {
+    private final long mutations;
+    private final long bytesWritten;
+    private final long fullSaves;
+
+    public WriteStats(long mutations, long bytesWritten, long fullSaves) {
+        this.mutations = mutations;
+        this.bytesWritten = bytesWritten;
+        this.fullSaves = fullSaves;
+    }
+
+    public long getMutations() {
+        return mutations;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public long getFullSaves() {
+        return fullSaves;
+    }
+
+    public double getBytesPerMutation() {
+        return mutations == 0 ? 0 : (double) bytesWritten / mutations;
+    }
+
+    @Override
+    public String toString() {
+        return "mutations=" + mutations + " bytes=" + bytesWritten + " fullSaves=" + fullSaves
+                + " bytesPerMutation=" + String.format("%.1f", getBytesPerMutation());
+    }
+}
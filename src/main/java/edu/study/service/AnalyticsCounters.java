@@ -0,0 +1,236 @@
+package edu.study.service;
+
+import edu.study.model.EpochMinutes;
+import edu.study.model.Task;
+import edu.study.model.TaskStatus;
+import edu.study.util.LongLongHashMap;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Dashboard counts kept current from TaskService's events, so reading one is a field access instead of a scan:
+ * completions per day and today, OVERDUE tasks, and open tasks that are high risk in the sense of
+ * {@link AnalyticsService#isHighRisk}.
+ * High risk also depends on the clock, so open tasks with a deadline wait in a queue keyed by the minute they turn
+ * risky. A timer ticks once a minute to move due entries into the count and to rotate today's count at midnight;
+ * reads catch up with the clock first, which costs nothing unless the tick is late.
+ * Risk uses the calibrated estimate; when a new calibration comes out, the open tasks with a deadline are taken out
+ * under the old one and queued again under the new one.
+ */
+public class AnalyticsCounters implements TaskEventListener {
+    private static final long TICK_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final Supplier<TaskListing> source;
+    private final Supplier<EstimateCalibration> calibrations;
+    private final Map<UUID, Task> riskCandidates = new HashMap<>();
+    private final LongLongHashMap completionsByDay = new LongLongHashMap();
+    // first minute a task counts as high risk -> open tasks waiting for it; every key is at or after clock
+    private final TreeMap<Long, Integer> riskQueue = new TreeMap<>();
+    private ScheduledExecutorService timer;
+    private EstimateCalibration calibration = EstimateCalibration.NONE;
+    private long clock;
+    private long today;
+    private long doneToday;
+    private long overdue;
+    private long highRisk;
+    private long applied;
+
+    /**
+     * @param source the full task set, read again whenever the service reports a reset
+     */
+    public AnalyticsCounters(Supplier<TaskListing> source) {
+        this(source, () -> EstimateCalibration.NONE);
+    }
+
+    /**
+     * @param calibrations the current estimate calibration, checked for a newer one on every update and read
+     */
+    public AnalyticsCounters(Supplier<TaskListing> source, Supplier<EstimateCalibration> calibrations) {
+        this.source = source;
+        this.calibrations = calibrations;
+    }
+
+    /**
+     * Counters that follow the service from now on, filled from its current tasks and ticking.
+     */
+    public static AnalyticsCounters attach(TaskService service) {
+        return attach(service, null);
+    }
+
+    /**
+     * Same, judging risk by the tracker's calibrated estimates; tracker may be null.
+     */
+    public static AnalyticsCounters attach(TaskService service, EstimationTracker tracker) {
+        AnalyticsCounters counters = tracker != null
+                ? new AnalyticsCounters(service::listing, tracker::calibration)
+                : new AnalyticsCounters(service::listing);
+        service.subscribe(counters);
+        counters.rebuild();
+        counters.start();
+        return counters;
+    }
+
+    /**
+     * Starts the once-a-minute tick, aligned just past each minute boundary.
+     */
+    public synchronized void start() {
+        if (timer != null) {
+            return;
+        }
+        timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "analytics-clock");
+            t.setDaemon(true);
+            return t;
+        });
+        long delay = TICK_MILLIS - System.currentTimeMillis() % TICK_MILLIS + 1;
+        timer.scheduleAtFixedRate(this::tick, delay, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (timer != null) {
+            timer.shutdownNow();
+            timer = null;
+        }
+    }
+
+    @Override
+    public synchronized void onEvents(TaskEventBatch batch) {
+        if (batch.getLastSequence() <= applied) {
+            // already counted from the listing of the last rebuild; counting it again would double it
+            return;
+        }
+        if (batch.isReset()) {
+            rebuild();
+            return;
+        }
+        applied = batch.getLastSequence();
+        advance(LocalDateTime.now());
+        // a change that touched other fields too comes as TaskUpdated then StatusChanged, and the first covers both
+        UUID lastUpdated = null;
+        for (TaskEvent event : batch.getEvents()) {
+            if (event instanceof TaskAdded added) {
+                count(added.getTask(), added.getTask().getStatus(), 1);
+            } else if (event instanceof TaskDeleted deleted) {
+                count(deleted.getTask(), deleted.getTask().getStatus(), -1);
+            } else if (event instanceof TaskUpdated updated) {
+                count(updated.getPrevious(), updated.getPrevious().getStatus(), -1);
+                count(updated.getTask(), updated.getTask().getStatus(), 1);
+                lastUpdated = updated.getTaskId();
+            } else if (event instanceof StatusChanged changed && !changed.getTaskId().equals(lastUpdated)) {
+                count(changed.getTask(), changed.getFrom(), -1);
+                count(changed.getTask(), changed.getTo(), 1);
+            }
+        }
+    }
+
+    /**
+     * Recounts everything from the source, read under this object's monitor so no batch slips in between.
+     */
+    public synchronized void rebuild() {
+        TaskListing listing = source.get();
+        completionsByDay.clear();
+        riskQueue.clear();
+        riskCandidates.clear();
+        calibration = calibrations.get();
+        doneToday = 0;
+        overdue = 0;
+        highRisk = 0;
+        LocalDateTime now = LocalDateTime.now();
+        clock = EpochMinutes.ceil(now);
+        today = now.toLocalDate().toEpochDay();
+        for (Task task : listing.getTasks()) {
+            count(task, task.getStatus(), 1);
+        }
+        applied = listing.getSequence();
+    }
+
+    public synchronized long doneToday() {
+        advance(LocalDateTime.now());
+        return doneToday;
+    }
+
+    public synchronized long completionsOn(LocalDate day) {
+        return completionsByDay.get(day.toEpochDay(), 0);
+    }
+
+    public synchronized long overdueCount() {
+        return overdue;
+    }
+
+    public synchronized long highRiskCount() {
+        advance(LocalDateTime.now());
+        return highRisk;
+    }
+
+    private synchronized void tick() {
+        advance(LocalDateTime.now());
+    }
+
+    private void advance(LocalDateTime now) {
+        // risk starts on whole minutes: now is past it exactly when it is before ceil(now)
+        long minute = EpochMinutes.ceil(now);
+        if (minute > clock) {
+            clock = minute;
+            while (!riskQueue.isEmpty() && riskQueue.firstKey() < clock) {
+                highRisk += riskQueue.pollFirstEntry().getValue();
+            }
+        }
+        long day = now.toLocalDate().toEpochDay();
+        if (day != today) {
+            today = day;
+            doneToday = completionsByDay.get(day, 0);
+        }
+        EstimateCalibration latest = calibrations.get();
+        if (!latest.equals(calibration)) {
+            List<Task> candidates = new ArrayList<>(riskCandidates.values());
+            candidates.forEach(task -> risk(task, -1));
+            calibration = latest;
+            candidates.forEach(task -> risk(task, 1));
+        }
+    }
+
+    /**
+     * Adds (sign 1) or takes back (sign -1) what one task version contributes, read as if it had the given status.
+     */
+    private void count(Task task, TaskStatus status, int sign) {
+        long completed = task.getCompletedEpochMinute();
+        if (completed != EpochMinutes.NONE) {
+            long day = EpochMinutes.toEpochDay(completed);
+            completionsByDay.addTo(day, sign);
+            if (day == today) {
+                doneToday += sign;
+            }
+        }
+        if (status == TaskStatus.OVERDUE) {
+            overdue += sign;
+        }
+        if (status == TaskStatus.DONE || task.getDeadlineEpochMinute() == EpochMinutes.NONE) {
+            return;
+        }
+        if (sign > 0) {
+            riskCandidates.put(task.getTaskId(), task);
+        } else {
+            riskCandidates.remove(task.getTaskId());
+        }
+        risk(task, sign);
+    }
+
+    private void risk(Task task, int sign) {
+        long riskFrom = task.getDeadlineEpochMinute() - Math.max(0, calibration.calibratedMinutes(task));
+        if (riskFrom < clock) {
+            highRisk += sign;
+        } else {
+            riskQueue.merge(riskFrom, sign, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+}
@@ -1,15 +1,148 @@
 package edu.study.service;
 
+import edu.study.model.EpochMinutes;
+import edu.study.model.Priority;
+import edu.study.model.RollupBucket;
+import edu.study.model.RollupPeriod;
 import edu.study.model.Task;
 import edu.study.model.TaskStatus;
+import edu.study.util.LongLongHashMap;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 public class AnalyticsService {
+    private final TaskColumns columns;
+    private final AnalyticsCounters counters;
+    private final ProductivityRollups rollups;
+    private final EstimationTracker estimation;
+
+    /**
+     * Only the list-based methods are available without columns.
+     */
+    public AnalyticsService() {
+        this(null, null, null, null);
+    }
+
+    public AnalyticsService(TaskColumns columns) {
+        this(columns, null, null, null);
+    }
+
+    /**
+     * With counters attached, the dashboard counts are read from them instead of scanning the columns;
+     * with rollups attached, per-day history comes from the rollups; with an estimation tracker attached,
+     * risk is judged by calibrated estimates.
+     */
+    public AnalyticsService(TaskColumns columns, AnalyticsCounters counters, ProductivityRollups rollups,
+                            EstimationTracker estimation) {
+        this.columns = columns;
+        this.counters = counters;
+        this.rollups = rollups;
+        this.estimation = estimation;
+    }
+
+    /**
+     * Same as completionPerDay(List) over the service's tasks, counted from the columns; ordered by day.
+     * Boxes one entry per day; completionHistogram is the allocation-free form.
+     */
+    public Map<LocalDate, Long> completionPerDay() {
+        LongLongHashMap counts = new LongLongHashMap();
+        completionHistogram(counts);
+        Map<LocalDate, Long> result = new TreeMap<>();
+        counts.forEach((day, count) -> result.put(LocalDate.ofEpochDay(day), count));
+        return result;
+    }
+
+    /**
+     * Fills out with epoch day to completions that day; reusing out across calls keeps this allocation-free.
+     */
+    public void completionHistogram(LongLongHashMap out) {
+        if (rollups != null) {
+            rollups.completionsByDay(out);
+            return;
+        }
+        requireColumns().completionsByDay(out);
+    }
+
+    /**
+     * Completed-task totals per period for buckets starting within [from, to), oldest first.
+     */
+    public List<RollupBucket> productivity(RollupPeriod period, LocalDate from, LocalDate to) {
+        return requireRollups().buckets(period, from, to);
+    }
+
+    public void rebuildRollups() {
+        requireRollups().rebuild();
+    }
+
+    /**
+     * Writes out whatever derived state is kept on disk.
+     */
+    public void flush() {
+        if (rollups != null) {
+            rollups.flush();
+        }
+    }
+
+    /**
+     * Minutes from startTime to completedAt of completed, scheduled tasks, by {@link edu.study.model.Priority} ordinal.
+     */
+    public void completionTimeByPriority(CompletionStats out) {
+        requireColumns().completionMinutesByPriority(out);
+    }
+
+    /**
+     * Same by course; group i is {@link #courseId(int) courseId(i)}.
+     */
+    public void completionTimeByCourse(CompletionStats out) {
+        requireColumns().completionMinutesByCourse(out);
+    }
+
+    public String courseId(int group) {
+        return requireColumns().courseId(group);
+    }
+
+    public long countDoneToday() {
+        if (counters != null) {
+            return counters.doneToday();
+        }
+        return requireColumns().countCompletedOn(LocalDate.now().toEpochDay());
+    }
+
+    public long countOverdue() {
+        if (counters != null) {
+            return counters.overdueCount();
+        }
+        return requireColumns().countByStatus(TaskStatus.OVERDUE);
+    }
+
+    /**
+     * Open tasks for which {@link #isHighRisk} holds right now.
+     */
+    public long countHighRisk() {
+        if (counters != null) {
+            return counters.highRiskCount();
+        }
+        EstimateCalibration calibration = estimation != null ? estimation.calibration() : EstimateCalibration.NONE;
+        return requireColumns().countAtRisk(EpochMinutes.ceil(LocalDateTime.now()), calibration);
+    }
+
+    /**
+     * Estimated minutes of every task that is not done yet, overdue ones included.
+     */
+    public long remainingEstimateMinutes() {
+        TaskColumns scan = requireColumns();
+        return scan.totalEstimateMinutes(TaskStatus.TODO) + scan.totalEstimateMinutes(TaskStatus.DOING)
+                + scan.totalEstimateMinutes(TaskStatus.OVERDUE);
+    }
+
+    public long countPostpones() {
+        return requireColumns().totalPostpones();
+    }
 
     public Map<LocalDate, Long> completionPerDay(List<Task> tasks) {
         return tasks.stream()
@@ -24,12 +157,58 @@ public class AnalyticsService {
                 .count();
     }
 
+    /**
+     * Overrun ratios (actual over estimated minutes) of all completed, scheduled tasks.
+     */
+    public OverrunStats estimationAccuracy() {
+        return requireEstimation().overrun();
+    }
+
+    public OverrunStats estimationAccuracy(Priority priority) {
+        return requireEstimation().overrun(priority);
+    }
+
+    public OverrunStats estimationAccuracyForCourse(String courseId) {
+        return requireEstimation().overrunForCourse(courseId);
+    }
+
+    /**
+     * The estimate risk checks use: scaled by the tracker's calibration when one is attached, as entered otherwise.
+     */
+    public Duration calibratedEstimate(Task task) {
+        if (estimation == null) {
+            return task.getEstimatedTime() != null ? task.getEstimatedTime() : Duration.ofHours(1);
+        }
+        return Duration.ofMinutes(estimation.calibration().calibratedMinutes(task));
+    }
+
     public boolean isHighRisk(Task task, LocalDateTime now) {
         if (task.getStatus() == TaskStatus.DONE || task.getDeadline() == null) {
             return false;
         }
         Duration remaining = Duration.between(now, task.getDeadline());
-        Duration estimated = task.getEstimatedTime() != null ? task.getEstimatedTime() : Duration.ofHours(1);
+        Duration estimated = calibratedEstimate(task);
         return remaining.isNegative() || remaining.minus(estimated).isNegative();
     }
+
+    private EstimationTracker requireEstimation() {
+        if (estimation == null) {
+            throw new IllegalStateException("Estimation tracker is not attached");
+        }
+        return estimation;
+    }
+
+    private ProductivityRollups requireRollups() {
+        if (rollups == null) {
+            throw new IllegalStateException("Productivity rollups are not attached");
+        }
+        return rollups;
+    }
+
+    private TaskColumns requireColumns() {
+        if (columns == null) {
+            throw new IllegalStateException("Analytics columns are not attached");
+        }
+        return columns;
+    }
 }
@@ -0,0 +1,49 @@
+package edu.study.service;
+
+import java.util.Arrays;
+
+/**
+ * Reusable per-group sums of completion minutes, filled by {@link TaskColumns}. Groups are small dense indexes
+ * (a priority ordinal or a course index); reset keeps the arrays so repeated queries do not allocate.
+ */
+public class CompletionStats {
+    private long[] totalMinutes = new long[8];
+    private long[] counts = new long[8];
+    private int groups;
+
+    void reset(int groups) {
+        if (groups > counts.length) {
+            int capacity = Math.max(groups, counts.length * 2);
+            totalMinutes = new long[capacity];
+            counts = new long[capacity];
+        } else {
+            Arrays.fill(totalMinutes, 0, this.groups, 0);
+            Arrays.fill(counts, 0, this.groups, 0);
+        }
+        this.groups = groups;
+    }
+
+    void add(int group, long minutes) {
+        totalMinutes[group] += minutes;
+        counts[group]++;
+    }
+
+    public int groups() {
+        return groups;
+    }
+
+    public long count(int group) {
+        return counts[group];
+    }
+
+    public long totalMinutes(int group) {
+        return totalMinutes[group];
+    }
+
+    /**
+     * Mean minutes, or -1 when the group has no completed task to measure.
+     */
+    public double averageMinutes(int group) {
+        return counts[group] == 0 ? -1 : (double) totalMinutes[group] / counts[group];
+    }
+}
@@ -0,0 +1,86 @@
+package edu.study.service;
+
+import edu.study.model.EpochMinutes;
+import edu.study.model.Task;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Tasks ordered by deadline so range queries cost O(log n + k). Keyed by the task's epoch-minute deadline,
+ * so the index never holds LocalDateTime objects of its own.
+ * Remembers the deadline each task was filed under, so a task whose deadline was changed in place
+ * can simply be put again. Not thread-safe; TaskService guards it.
+ */
+public class DeadlineIndex {
+    private final NavigableMap<Long, Map<UUID, Task>> byDeadline = new TreeMap<>();
+    private final Map<UUID, Long> filedUnder = new HashMap<>();
+
+    /**
+     * Adds the task or moves it to its current deadline. Tasks without a deadline are not indexed.
+     */
+    public void put(Task task) {
+        UUID id = task.getTaskId();
+        long minute = task.getDeadlineEpochMinute();
+        Long previous = filedUnder.get(id);
+        if (previous != null && previous != minute) {
+            detach(id, previous);
+        }
+        if (minute == EpochMinutes.NONE) {
+            filedUnder.remove(id);
+            return;
+        }
+        Long deadline = previous != null && previous == minute ? previous : Long.valueOf(minute);
+        byDeadline.computeIfAbsent(deadline, d -> new LinkedHashMap<>(2)).put(id, task);
+        filedUnder.put(id, deadline);
+    }
+
+    public void remove(UUID id) {
+        Long previous = filedUnder.remove(id);
+        if (previous != null) {
+            detach(id, previous);
+        }
+    }
+
+    /**
+     * Tasks with from <= deadline < to, earliest deadline first.
+     */
+    public List<Task> between(LocalDateTime from, LocalDateTime to) {
+        List<Task> result = new ArrayList<>();
+        if (!from.isBefore(to)) {
+            return result;
+        }
+        // deadlines are whole minutes, so rounding both bounds up keeps from <= deadline < to exact
+        NavigableMap<Long, Map<UUID, Task>> range = byDeadline.subMap(EpochMinutes.ceil(from), true, EpochMinutes.ceil(to), false);
+        for (Map<UUID, Task> bucket : range.values()) {
+            result.addAll(bucket.values());
+        }
+        return result;
+    }
+
+    public int size() {
+        return filedUnder.size();
+    }
+
+    public void clear() {
+        byDeadline.clear();
+        filedUnder.clear();
+    }
+
+    private void detach(UUID id, Long deadline) {
+        Map<UUID, Task> bucket = byDeadline.get(deadline);
+        if (bucket == null) {
+            return;
+        }
+        bucket.remove(id);
+        if (bucket.isEmpty()) {
+            byDeadline.remove(deadline);
+        }
+    }
+}
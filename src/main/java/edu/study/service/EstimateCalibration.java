@@ -0,0 +1,66 @@
+package edu.study.service;
+
+import edu.study.model.Priority;
+import edu.study.model.Task;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable set of median overrun factors, most specific first: the task's course, then its priority, then all
+ * tasks. Groups with too few samples are left out, and with no factor at all the estimate is taken as given.
+ */
+public class EstimateCalibration {
+    public static final EstimateCalibration NONE = new EstimateCalibration(Double.NaN, Map.of(), Map.of());
+
+    private final double overall;
+    private final Map<Priority, Double> byPriority;
+    private final Map<String, Double> byCourse;
+
+    EstimateCalibration(double overall, Map<Priority, Double> byPriority, Map<String, Double> byCourse) {
+        this.overall = overall;
+        this.byPriority = byPriority.isEmpty() ? Map.of() : new EnumMap<>(byPriority);
+        this.byCourse = Map.copyOf(byCourse);
+    }
+
+    public double factor(Task task) {
+        return factor(task.getPriority(), task.getCourseId());
+    }
+
+    public double factor(Priority priority, String courseId) {
+        Double factor = courseId != null ? byCourse.get(courseId) : null;
+        if (factor == null && priority != null) {
+            factor = byPriority.get(priority);
+        }
+        if (factor != null) {
+            return factor;
+        }
+        return Double.isNaN(overall) ? 1 : overall;
+    }
+
+    /**
+     * The task's estimate scaled by its factor, rounded to whole minutes.
+     */
+    public int calibratedMinutes(Task task) {
+        return (int) Math.min(Integer.MAX_VALUE, Math.round(task.getEstimatedMinutes() * factor(task)));
+    }
+
+    /**
+     * Equal calibrations scale every estimate alike.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        return other instanceof EstimateCalibration that
+                && Double.compare(overall, that.overall) == 0
+                && byPriority.equals(that.byPriority)
+                && byCourse.equals(that.byCourse);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(overall, byPriority, byCourse);
+    }
+}
@@ -0,0 +1,190 @@
+package edu.study.service;
+
+import edu.study.model.EpochMinutes;
+import edu.study.model.Priority;
+import edu.study.model.Task;
+import edu.study.util.LogHistogram;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * How long completed tasks took against their estimate, as ratios of actual (startTime to completedAt) to estimated
+ * minutes in fixed-size log-bucketed histograms: one over all tasks, one per priority and one per course. Samples
+ * are never stored; a task that changes or goes away takes its previous ratio back out of the same bucket.
+ * Kept in sync from TaskService's events. The {@link EstimateCalibration} handed to risk checks is recomputed
+ * from the medians after a reset and after every few samples, not on each one.
+ */
+public class EstimationTracker implements TaskEventListener {
+    /** Ratios are kept in thousandths up to 1000 times the estimate, to within about 3%. */
+    private static final long SCALE = 1000;
+    private static final long MAX_RATIO = 1000 * SCALE;
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int MIN_SAMPLES = 10;
+    private static final int RECALIBRATE_EVERY = 16;
+    /** A handful of odd samples must not make estimates vanish or explode. */
+    private static final double MIN_FACTOR = 0.25;
+    private static final double MAX_FACTOR = 4;
+
+    private final Supplier<TaskListing> source;
+    private final LogHistogram overall = histogram();
+    private final Map<Priority, LogHistogram> byPriority = new EnumMap<>(Priority.class);
+    private final Map<String, LogHistogram> byCourse = new HashMap<>();
+    private volatile EstimateCalibration calibration = EstimateCalibration.NONE;
+    private int changesSinceCalibration;
+    private long applied;
+
+    /**
+     * @param source the full task set, read again whenever the service reports a reset
+     */
+    public EstimationTracker(Supplier<TaskListing> source) {
+        this.source = source;
+    }
+
+    /**
+     * A tracker that follows the service from now on, filled from its current tasks.
+     */
+    public static EstimationTracker attach(TaskService service) {
+        EstimationTracker tracker = new EstimationTracker(service::listing);
+        service.subscribe(tracker);
+        tracker.rebuild();
+        return tracker;
+    }
+
+    @Override
+    public synchronized void onEvents(TaskEventBatch batch) {
+        if (batch.getLastSequence() <= applied) {
+            // already sampled from the listing of the last rebuild
+            return;
+        }
+        if (batch.isReset()) {
+            rebuild();
+            return;
+        }
+        applied = batch.getLastSequence();
+        for (TaskEvent event : batch.getEvents()) {
+            if (event instanceof TaskAdded added) {
+                sample(added.getTask(), 1);
+            } else if (event instanceof TaskDeleted deleted) {
+                sample(deleted.getTask(), -1);
+            } else if (event instanceof TaskUpdated updated) {
+                sample(updated.getPrevious(), -1);
+                sample(updated.getTask(), 1);
+            }
+        }
+        if (changesSinceCalibration >= RECALIBRATE_EVERY) {
+            recalibrate();
+        }
+    }
+
+    /**
+     * Resamples everything from the source, read under this object's monitor so no batch slips in between.
+     */
+    public synchronized void rebuild() {
+        TaskListing listing = source.get();
+        overall.clear();
+        byPriority.clear();
+        byCourse.clear();
+        for (Task task : listing.getTasks()) {
+            sample(task, 1);
+        }
+        applied = listing.getSequence();
+        recalibrate();
+    }
+
+    public synchronized OverrunStats overrun() {
+        return stats(overall);
+    }
+
+    public synchronized OverrunStats overrun(Priority priority) {
+        return stats(byPriority.get(priority));
+    }
+
+    public synchronized OverrunStats overrunForCourse(String courseId) {
+        return stats(byCourse.get(courseId));
+    }
+
+    /**
+     * The latest calibration; cheap enough to call per task.
+     */
+    public EstimateCalibration calibration() {
+        return calibration;
+    }
+
+    private void sample(Task task, int sign) {
+        long ratio = ratio(task);
+        if (ratio < 0) {
+            return;
+        }
+        overall.add(ratio, sign);
+        if (task.getPriority() != null) {
+            byPriority.computeIfAbsent(task.getPriority(), p -> histogram()).add(ratio, sign);
+        }
+        String courseId = task.getCourseId();
+        if (courseId != null) {
+            LogHistogram histogram = byCourse.computeIfAbsent(courseId, c -> histogram());
+            histogram.add(ratio, sign);
+            if (histogram.totalCount() == 0) {
+                // courses come and go; only those with samples keep their buckets
+                byCourse.remove(courseId);
+            }
+        }
+        changesSinceCalibration++;
+    }
+
+    private void recalibrate() {
+        Map<Priority, Double> priorities = new EnumMap<>(Priority.class);
+        byPriority.forEach((priority, histogram) -> {
+            if (histogram.totalCount() >= MIN_SAMPLES) {
+                priorities.put(priority, median(histogram));
+            }
+        });
+        Map<String, Double> courses = new HashMap<>();
+        byCourse.forEach((courseId, histogram) -> {
+            if (histogram.totalCount() >= MIN_SAMPLES) {
+                courses.put(courseId, median(histogram));
+            }
+        });
+        double all = overall.totalCount() >= MIN_SAMPLES ? median(overall) : Double.NaN;
+        EstimateCalibration next = new EstimateCalibration(all, priorities, courses);
+        if (!next.equals(calibration)) {
+            // keeping the old object when nothing moved spares risk counting a requeue of every candidate
+            calibration = next;
+        }
+        changesSinceCalibration = 0;
+    }
+
+    /**
+     * Actual over estimated minutes in thousandths, or -1 unless the task is completed, was scheduled, and has an
+     * estimate.
+     */
+    private static long ratio(Task task) {
+        long completed = task.getCompletedEpochMinute();
+        long start = task.getStartEpochMinute();
+        int estimate = task.getEstimatedMinutes();
+        if (completed == EpochMinutes.NONE || start == EpochMinutes.NONE || completed < start || estimate <= 0) {
+            return -1;
+        }
+        return Math.min(MAX_RATIO, (completed - start) * SCALE / estimate);
+    }
+
+    private static double median(LogHistogram histogram) {
+        double factor = (double) histogram.valueAtPercentile(50) / SCALE;
+        return Math.max(MIN_FACTOR, Math.min(MAX_FACTOR, factor));
+    }
+
+    private static OverrunStats stats(LogHistogram histogram) {
+        if (histogram == null || histogram.totalCount() <= 0) {
+            return new OverrunStats(0, 0, 0, 0);
+        }
+        return new OverrunStats(histogram.totalCount(),
+                (double) histogram.valueAtPercentile(50) / SCALE,
+                (double) histogram.valueAtPercentile(90) / SCALE,
+                (double) histogram.valueAtPercentile(99) / SCALE);
+    }
+
+    private static LogHistogram histogram() {
+        return new LogHistogram(MAX_RATIO, SUB_BUCKET_BITS);
+    }
+}
@@ -0,0 +1,119 @@
+package edu.study.service;
+
+import edu.study.model.EpochMinutes;
+import edu.study.model.Task;
+import edu.study.model.TaskStatus;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadline-ordered queue of open tasks with a timer armed for the earliest one, so tasks turn OVERDUE when
+ * their deadline passes instead of on the next read.
+ * Entries are never removed eagerly: a task whose deadline moved is simply tracked again, and the stale entry
+ * is dropped when it comes due because the task no longer is.
+ */
+public class OverdueScheduler {
+    /** The timer relies on a monotonic clock; waking up at least this often catches wall-clock jumps and sleep. */
+    private static final long MAX_SLEEP_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>();
+    private final Runnable onDue;
+    private final ScheduledExecutorService timer;
+    private ScheduledFuture<?> armed;
+    private LocalDateTime armedFor;
+
+    /**
+     * @param onDue called on the timer thread, without this scheduler's lock held, whenever entries may be due
+     */
+    public OverdueScheduler(Runnable onDue) {
+        this.onDue = onDue;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "overdue-timer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Queues the task if it is open and its deadline is still ahead.
+     */
+    public synchronized void track(Task task) {
+        long deadline = task.getDeadlineEpochMinute();
+        if (deadline == EpochMinutes.NONE || task.getStatus() == TaskStatus.DONE || task.getStatus() == TaskStatus.OVERDUE) {
+            return;
+        }
+        queue.add(new Entry(deadline, task.getTaskId()));
+        rearm();
+    }
+
+    /**
+     * Removes and returns the ids of every entry whose deadline is before now, then re-arms for the next one.
+     */
+    public synchronized List<UUID> pollDue(LocalDateTime now) {
+        List<UUID> due = new ArrayList<>();
+        // deadlines are whole minutes: deadline < now exactly when deadline < ceil(now)
+        long before = EpochMinutes.ceil(now);
+        while (!queue.isEmpty() && queue.peek().deadline < before) {
+            due.add(queue.poll().taskId);
+        }
+        armed = null;
+        armedFor = null;
+        rearm();
+        return due;
+    }
+
+    public synchronized int pending() {
+        return queue.size();
+    }
+
+    public synchronized void clear() {
+        queue.clear();
+        if (armed != null) {
+            armed.cancel(false);
+        }
+        armed = null;
+        armedFor = null;
+    }
+
+    private void rearm() {
+        Entry head = queue.peek();
+        if (head == null) {
+            return;
+        }
+        LocalDateTime deadline = EpochMinutes.toDateTime(head.deadline);
+        if (armedFor != null && !deadline.isBefore(armedFor)) {
+            return;
+        }
+        if (armed != null) {
+            armed.cancel(false);
+        }
+        // isOverdue is strict, so fire just after the deadline rather than on it
+        long delay = Duration.between(LocalDateTime.now(), deadline).toMillis() + 1;
+        long sleep = Math.max(0, Math.min(delay, MAX_SLEEP_MILLIS));
+        armedFor = sleep == delay ? deadline : LocalDateTime.now().plus(Duration.ofMillis(sleep));
+        armed = timer.schedule(onDue, sleep, TimeUnit.MILLISECONDS);
+    }
+
+    private static class Entry implements Comparable<Entry> {
+        final long deadline;
+        final UUID taskId;
+
+        Entry(long deadline, UUID taskId) {
+            this.deadline = deadline;
+            this.taskId = taskId;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            return Long.compare(deadline, other.deadline);
+        }
+    }
+}
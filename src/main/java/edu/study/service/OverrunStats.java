@@ -0,0 +1,40 @@
+package edu.study.service;
+
+/**
+ * Percentiles of the ratio of actual to estimated minutes over one group of completed tasks: 1.0 is on target,
+ * 1.5 took half as long again as planned. All ratios are 0 when there are no samples.
+ */
+public class OverrunStats {
+    private final long samples;
+    private final double p50;
+    private final double p90;
+    private final double p99;
+
+    public OverrunStats(long samples, double p50, double p90, double p99) {
+        this.samples = samples;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+    }
+
+    public long getSamples() {
+        return samples;
+    }
+
+    public double getP50() {
+        return p50;
+    }
+
+    public double getP90() {
+        return p90;
+    }
+
+    public double getP99() {
+        return p99;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d p50=%.2f p90=%.2f p99=%.2f", samples, p50, p90, p99);
+    }
+}
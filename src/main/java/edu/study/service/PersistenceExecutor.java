@@ -0,0 +1,209 @@
+package edu.study.service;
+
+import edu.study.model.Task;
+import edu.study.repository.TaskRepository;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves repository writes off the caller's thread.
+ * A single writer drains a bounded queue and coalesces everything it finds into one write;
+ * producers block once the queue is full, which is the backpressure when the disk falls behind.
+ * A failed write is retried by the writer on its own, after a delay that doubles with each failure in a row;
+ * changes submitted meanwhile are folded into it, and a flush retries right away.
+ */
+public class PersistenceExecutor {
+    private static final long MIN_BACKOFF_MILLIS = 100;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    private final TaskRepository repository;
+    private final BlockingQueue<Batch> queue;
+    private Batch retry;
+    private long retryAt;
+    private long backoffMillis = MIN_BACKOFF_MILLIS;
+    private volatile RuntimeException lastFailure;
+
+    /**
+     * Synchronous variant: every submission is written before the call returns.
+     */
+    public PersistenceExecutor(TaskRepository repository) {
+        this.repository = repository;
+        this.queue = null;
+    }
+
+    public PersistenceExecutor(TaskRepository repository, int capacity) {
+        this.repository = repository;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        Thread writer = new Thread(this::drainLoop, "task-persistence");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public void submitChanges(List<Task> changed, List<UUID> deleted) {
+        Batch batch = new Batch();
+        for (Task task : changed) {
+            batch.put(task);
+        }
+        for (UUID id : deleted) {
+            batch.delete(id);
+        }
+        submit(batch);
+    }
+
+    public void submitFullSave(List<Task> tasks) {
+        Batch batch = new Batch();
+        batch.fullSave = tasks;
+        submit(batch);
+    }
+
+    /**
+     * Runs a write of data derived from the tasks on the writer thread, after the task changes queued before it.
+     * A later write under the same key replaces one that has not run yet. The write deals with its own failures.
+     */
+    public void submitWrite(Object key, Runnable write) {
+        Batch batch = new Batch();
+        batch.writes.put(key, write);
+        submit(batch);
+    }
+
+    /**
+     * Blocks until everything submitted so far has reached the repository.
+     */
+    public void flush() {
+        if (queue == null) {
+            return;
+        }
+        Batch barrier = new Batch();
+        barrier.barrier = new CountDownLatch(1);
+        try {
+            queue.put(barrier);
+            barrier.barrier.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while flushing task changes", e);
+        }
+        RuntimeException failure = lastFailure;
+        if (failure != null) {
+            throw new IllegalStateException("Task changes could not be persisted", failure);
+        }
+    }
+
+    public int pendingBatches() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    private void submit(Batch batch) {
+        if (queue == null) {
+            write(batch);
+            return;
+        }
+        try {
+            queue.put(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing task changes", e);
+        }
+    }
+
+    private void drainLoop() {
+        List<Batch> drained = new ArrayList<>();
+        while (true) {
+            try {
+                Batch next = retry == null ? queue.take()
+                        : queue.poll(Math.max(0, retryAt - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                if (next != null) {
+                    drained.add(next);
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(drained);
+            if (retry != null && System.currentTimeMillis() < retryAt && !hasBarrier(drained)) {
+                // still backing off: the new changes wait in the retry for the rest of the delay
+                drained.forEach(retry::merge);
+                drained.clear();
+                continue;
+            }
+            Batch merged = retry != null ? retry : new Batch();
+            retry = null;
+            List<CountDownLatch> barriers = new ArrayList<>();
+            for (Batch batch : drained) {
+                merged.merge(batch);
+                if (batch.barrier != null) {
+                    barriers.add(batch.barrier);
+                }
+            }
+            drained.clear();
+            try {
+                write(merged);
+                lastFailure = null;
+                backoffMillis = MIN_BACKOFF_MILLIS;
+            } catch (RuntimeException e) {
+                System.err.println("[storage] " + e.getMessage() + "; retrying in " + backoffMillis + " ms");
+                retry = merged;
+                retryAt = System.currentTimeMillis() + backoffMillis;
+                backoffMillis = Math.min(MAX_BACKOFF_MILLIS, backoffMillis * 2);
+                lastFailure = e;
+            }
+            barriers.forEach(CountDownLatch::countDown);
+        }
+    }
+
+    private static boolean hasBarrier(List<Batch> batches) {
+        for (Batch batch : batches) {
+            if (batch.barrier != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void write(Batch batch) {
+        if (batch.fullSave != null) {
+            repository.saveAll(batch.fullSave);
+        }
+        if (!batch.puts.isEmpty() || !batch.deletes.isEmpty()) {
+            repository.saveChanges(new ArrayList<>(batch.puts.values()), new ArrayList<>(batch.deletes));
+        }
+        batch.writes.values().forEach(Runnable::run);
+    }
+
+    private static class Batch {
+        private List<Task> fullSave;
+        private final Map<UUID, Task> puts = new LinkedHashMap<>();
+        private final Set<UUID> deletes = new LinkedHashSet<>();
+        private final Map<Object, Runnable> writes = new LinkedHashMap<>();
+        private CountDownLatch barrier;
+
+        void put(Task task) {
+            deletes.remove(task.getTaskId());
+            puts.put(task.getTaskId(), task);
+        }
+
+        void delete(UUID id) {
+            puts.remove(id);
+            deletes.add(id);
+        }
+
+        void merge(Batch next) {
+            if (next.fullSave != null) {
+                // a full save already reflects every earlier change
+                fullSave = next.fullSave;
+                puts.clear();
+                deletes.clear();
+            }
+            next.puts.values().forEach(this::put);
+            next.deletes.forEach(this::delete);
+            writes.putAll(next.writes);
+        }
+    }
+}
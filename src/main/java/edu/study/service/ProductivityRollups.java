@@ -0,0 +1,282 @@
+package edu.study.service;
+
+import edu.study.model.EpochMinutes;
+import edu.study.model.RollupBucket;
+import edu.study.model.RollupPeriod;
+import edu.study.model.Task;
+import edu.study.repository.RollupRepository;
+import edu.study.repository.RollupStore;
+import edu.study.util.LongLongHashMap;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Totals of completed tasks per day, week and month, so charts over years of history read a few hundred buckets
+ * instead of every archived task. Buckets come from the rollup file and then follow TaskService's events: a change
+ * takes back what the previous task version added and adds the new one.
+ * The stored fingerprint is checked against the tasks on the first read or flush after startup or a reset, once
+ * the completed history is in, and the buckets are rebuilt only if they disagree; until then they are served as
+ * they are. Resets only mark the buckets unchecked, so the event thread never scans the history, and several
+ * resets in a row cost one check. The rollup file is written on the persistence executor's writer thread.
+ */
+public class ProductivityRollups implements TaskEventListener {
+    private final Supplier<TaskListing> source;
+    private final BooleanSupplier complete;
+    private final RollupRepository repository;
+    private final PersistenceExecutor executor;
+    private final Map<RollupPeriod, TreeMap<LocalDate, RollupBucket>> buckets = new EnumMap<>(RollupPeriod.class);
+    private long fingerprint;
+    private volatile boolean dirty;
+    private boolean unchecked = true;
+    private long applied;
+
+    /**
+     * @param source   the full task set, read again to check or rebuild the buckets
+     * @param complete whether source already includes the completed history
+     * @param repository where the buckets are kept between runs, or null to keep them in memory only
+     * @param executor   runs the writes to the repository, or null to write on the calling thread
+     */
+    public ProductivityRollups(Supplier<TaskListing> source, BooleanSupplier complete,
+                               RollupRepository repository, PersistenceExecutor executor) {
+        this.source = source;
+        this.complete = complete;
+        this.repository = repository;
+        this.executor = executor;
+        for (RollupPeriod period : RollupPeriod.values()) {
+            buckets.put(period, new TreeMap<>());
+        }
+    }
+
+    /**
+     * Rollups loaded from the repository that follow the service from now on.
+     */
+    public static ProductivityRollups attach(TaskService service, RollupRepository repository,
+                                             PersistenceExecutor executor) {
+        ProductivityRollups rollups = new ProductivityRollups(service::listing, service::isHistoryLoaded, repository,
+                executor);
+        rollups.load();
+        service.subscribe(rollups);
+        return rollups;
+    }
+
+    public synchronized void load() {
+        RollupStore store = repository != null ? repository.load().orElse(null) : null;
+        if (store == null) {
+            dirty = true;
+            return;
+        }
+        fill(RollupPeriod.DAY, store.getDaily());
+        fill(RollupPeriod.WEEK, store.getWeekly());
+        fill(RollupPeriod.MONTH, store.getMonthly());
+        fingerprint = store.getFingerprint();
+        dirty = false;
+    }
+
+    @Override
+    public synchronized void onEvents(TaskEventBatch batch) {
+        if (batch.getLastSequence() <= applied) {
+            // already in the listing the buckets were last checked against
+            return;
+        }
+        if (batch.isReset()) {
+            // events keep being counted meanwhile; the check compares the lot against the tasks
+            unchecked = true;
+            return;
+        }
+        applied = batch.getLastSequence();
+        for (TaskEvent event : batch.getEvents()) {
+            if (event instanceof TaskAdded added) {
+                count(added.getTask(), 1);
+            } else if (event instanceof TaskDeleted deleted) {
+                count(deleted.getTask(), -1);
+            } else if (event instanceof TaskUpdated updated) {
+                count(updated.getPrevious(), -1);
+                count(updated.getTask(), 1);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the buckets if they do not match the tasks. Does nothing while the completed history is still
+     * loading; merging it is a reset, so the next read checks again.
+     */
+    public synchronized void verify() {
+        if (!complete.getAsBoolean()) {
+            return;
+        }
+        unchecked = false;
+        TaskListing listing = source.get();
+        long expected = 0;
+        for (Task task : listing.getTasks()) {
+            expected += task.getCompletedEpochMinute() != EpochMinutes.NONE ? hash(task) : 0;
+        }
+        if (expected != fingerprint) {
+            rebuild(listing);
+        }
+        applied = listing.getSequence();
+    }
+
+    public synchronized void rebuild() {
+        rebuild(source.get());
+        unchecked = !complete.getAsBoolean();
+    }
+
+    private void rebuild(TaskListing listing) {
+        buckets.values().forEach(Map::clear);
+        fingerprint = 0;
+        for (Task task : listing.getTasks()) {
+            count(task, 1);
+        }
+        applied = listing.getSequence();
+        save();
+    }
+
+    /**
+     * Writes the buckets if they changed since the last write, and waits for the write.
+     */
+    public void flush() {
+        synchronized (this) {
+            checkIfNeeded();
+            if (dirty) {
+                save();
+            }
+        }
+        if (executor != null) {
+            executor.flush();
+        }
+    }
+
+    /**
+     * Copies of the buckets that start within [from, to), oldest first; from is widened to its bucket's start.
+     */
+    public synchronized List<RollupBucket> buckets(RollupPeriod period, LocalDate from, LocalDate to) {
+        checkIfNeeded();
+        NavigableMap<LocalDate, RollupBucket> range = buckets.get(period).subMap(period.startOf(from), true, to, false);
+        List<RollupBucket> result = new ArrayList<>(range.size());
+        for (RollupBucket bucket : range.values()) {
+            result.add(new RollupBucket(bucket));
+        }
+        return result;
+    }
+
+    /**
+     * Replaces the contents of out with epoch day to completions that day.
+     */
+    public synchronized void completionsByDay(LongLongHashMap out) {
+        checkIfNeeded();
+        out.clear();
+        for (RollupBucket bucket : buckets.get(RollupPeriod.DAY).values()) {
+            out.put(bucket.getStart().toEpochDay(), bucket.getCompleted());
+        }
+    }
+
+    private void checkIfNeeded() {
+        if (unchecked) {
+            verify();
+        }
+    }
+
+    /**
+     * Hands a copy of the buckets to the executor; they keep changing while it is written.
+     */
+    private void save() {
+        dirty = false;
+        if (repository == null) {
+            return;
+        }
+        RollupStore store = new RollupStore();
+        store.setFingerprint(fingerprint);
+        store.setDaily(copy(RollupPeriod.DAY));
+        store.setWeekly(copy(RollupPeriod.WEEK));
+        store.setMonthly(copy(RollupPeriod.MONTH));
+        if (executor != null) {
+            executor.submitWrite(this, () -> write(store));
+        } else {
+            write(store);
+        }
+    }
+
+    private void write(RollupStore store) {
+        try {
+            repository.save(store);
+        } catch (IllegalStateException e) {
+            // derived data: the next flush writes it again, and the next check rebuilds whatever is off;
+            // no monitor here, since save() may be waiting on a full queue while holding it
+            dirty = true;
+            System.err.println("[storage] " + e.getMessage());
+        }
+    }
+
+    private List<RollupBucket> copy(RollupPeriod period) {
+        List<RollupBucket> copies = new ArrayList<>(buckets.get(period).size());
+        for (RollupBucket bucket : buckets.get(period).values()) {
+            copies.add(new RollupBucket(bucket));
+        }
+        return copies;
+    }
+
+    private void fill(RollupPeriod period, List<RollupBucket> stored) {
+        TreeMap<LocalDate, RollupBucket> map = buckets.get(period);
+        map.clear();
+        if (stored != null) {
+            for (RollupBucket bucket : stored) {
+                map.put(bucket.getStart(), bucket);
+            }
+        }
+    }
+
+    /**
+     * Adds (sign 1) or takes back (sign -1) one task version; only completed tasks count.
+     */
+    private void count(Task task, int sign) {
+        long completed = task.getCompletedEpochMinute();
+        if (completed == EpochMinutes.NONE) {
+            return;
+        }
+        LocalDate day = LocalDate.ofEpochDay(EpochMinutes.toEpochDay(completed));
+        long start = task.getStartEpochMinute();
+        boolean measured = start != EpochMinutes.NONE && completed >= start;
+        for (RollupPeriod period : RollupPeriod.values()) {
+            TreeMap<LocalDate, RollupBucket> map = buckets.get(period);
+            RollupBucket bucket = map.computeIfAbsent(period.startOf(day), RollupBucket::new);
+            bucket.setCompleted(bucket.getCompleted() + sign);
+            bucket.setEstimatedMinutes(bucket.getEstimatedMinutes() + (long) sign * task.getEstimatedMinutes());
+            bucket.setPostpones(bucket.getPostpones() + (long) sign * task.getPostponeCount());
+            if (measured) {
+                bucket.setMeasured(bucket.getMeasured() + sign);
+                bucket.setActualMinutes(bucket.getActualMinutes() + sign * (completed - start));
+            }
+            if (bucket.getCompleted() == 0) {
+                map.remove(bucket.getStart());
+            }
+        }
+        fingerprint += sign * hash(task);
+        dirty = true;
+    }
+
+    /**
+     * Mixes every field a bucket depends on; summed over the completed tasks it identifies the set they came from.
+     */
+    private static long hash(Task task) {
+        UUID id = task.getTaskId();
+        long h = id != null ? mix(id.getMostSignificantBits()) ^ id.getLeastSignificantBits() : 0;
+        h = mix(h ^ task.getCompletedEpochMinute());
+        h = mix(h ^ task.getStartEpochMinute());
+        h = mix(h ^ ((long) task.getEstimatedMinutes() << 32 | task.getPostponeCount() & 0xFFFFFFFFL));
+        return h;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,129 @@
+package edu.study.service;
+
+import edu.study.model.EpochMinutes;
+import edu.study.model.Task;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Interval tree over scheduled spans [startTime, startTime + estimatedTime).
+ * A treap ordered by start, each node carrying the latest end in its subtree so whole branches that finish
+ * before a query window can be skipped. Spans are kept as epoch minutes. Not thread-safe; TaskService guards it.
+ */
+public class ScheduleIndex {
+    private static final Comparator<Node> BY_START = Comparator.<Node>comparingLong(node -> node.start)
+            .thenComparing(node -> node.id);
+
+    private final Treap<Node> treap = new Treap<>(BY_START);
+
+    /**
+     * Adds the task or moves it to its current span. Tasks without a start time are not indexed.
+     */
+    public void put(Task task) {
+        UUID id = task.getTaskId();
+        if (id == null) {
+            return;
+        }
+        long start = task.getStartEpochMinute();
+        if (start == EpochMinutes.NONE) {
+            treap.remove(id);
+            return;
+        }
+        treap.put(new Node(task, start, start + task.getEstimatedMinutes()));
+    }
+
+    public void remove(UUID id) {
+        treap.remove(id);
+    }
+
+    /**
+     * Tasks whose span intersects [from, to), ordered by start time.
+     */
+    public List<Task> overlapping(LocalDateTime from, LocalDateTime to) {
+        List<Task> result = new ArrayList<>();
+        if (from.isBefore(to)) {
+            // with whole-minute spans, end > from is end > floor(from) and start < to is start < ceil(to)
+            collect(treap.root(), EpochMinutes.of(from), EpochMinutes.ceil(to), result);
+        }
+        return result;
+    }
+
+    /**
+     * Tasks with start <= instant < end, ordered by start time.
+     */
+    public List<Task> activeAt(LocalDateTime instant) {
+        return overlapping(instant, instant.plusNanos(1));
+    }
+
+    /**
+     * Up to limit tasks starting strictly after the instant, earliest first; O(log n + limit).
+     */
+    public List<Task> startingAfter(LocalDateTime instant, int limit) {
+        List<Task> result = new ArrayList<>(Math.max(0, Math.min(limit, 16)));
+        collectAfter(treap.root(), EpochMinutes.of(instant), limit, result);
+        return result;
+    }
+
+    public int size() {
+        return treap.size();
+    }
+
+    public void clear() {
+        treap.clear();
+    }
+
+    private void collect(Node node, long from, long to, List<Task> out) {
+        if (node == null || node.maxEnd <= from) {
+            return;
+        }
+        collect(node.left, from, to, out);
+        if (node.start >= to) {
+            return;
+        }
+        if (node.end > from) {
+            out.add(node.task);
+        }
+        collect(node.right, from, to, out);
+    }
+
+    private void collectAfter(Node node, long instant, int limit, List<Task> out) {
+        if (node == null || out.size() >= limit) {
+            return;
+        }
+        if (node.start > instant) {
+            collectAfter(node.left, instant, limit, out);
+            if (out.size() < limit) {
+                out.add(node.task);
+            }
+        }
+        collectAfter(node.right, instant, limit, out);
+    }
+
+    private static class Node extends Treap.Node<Node> {
+        final long start;
+        final long end;
+        long maxEnd;
+
+        Node(Task task, long start, long end) {
+            super(task);
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+
+        @Override
+        void update() {
+            long max = end;
+            if (left != null && left.maxEnd > max) {
+                max = left.maxEnd;
+            }
+            if (right != null && right.maxEnd > max) {
+                max = right.maxEnd;
+            }
+            maxEnd = max;
+        }
+    }
+}
@@ -2,19 +2,172 @@ package edu.study.service;
 
 import edu.study.model.Task;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.PriorityQueue;
 
+/**
+ * Orders tasks by priority (highest first), then minutes left until the deadline, then estimated minutes.
+ * The clock is read once per sort and every task's key is packed into a single long before sorting,
+ * so comparisons are one unsigned long compare with no clock reads or allocation.
+ */
 public class SchedulingService {
-    private final Comparator<Task> schedulingComparator = Comparator
-            .comparingInt((Task t) -> t.getPriority().getWeight()).reversed()
-            .thenComparingLong(t -> t.remainingMinutes(LocalDateTime.now()))
-            .thenComparingLong(t -> t.getEstimatedTime() != null ? t.getEstimatedTime().toMinutes() : Long.MAX_VALUE);
+    /** Below this many tasks a sequential sort beats the fork/join overhead. */
+    static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    // key layout, most significant first: 3 bits inverted priority weight, 38 bits remaining minutes, 23 bits estimate
+    private static final int ESTIMATE_BITS = 23;
+    private static final int REMAINING_BITS = 38;
+    private static final long MAX_ESTIMATE = (1L << ESTIMATE_BITS) - 1;
+    private static final long REMAINING_OFFSET = 1L << (REMAINING_BITS - 1);
+    private static final long MAX_REMAINING = (1L << REMAINING_BITS) - 1;
+
+    private static final Comparator<Keyed> BY_KEY = (a, b) -> Long.compareUnsigned(a.key, b.key);
+    private static final Comparator<Keyed> BY_KEY_THEN_SEQ = BY_KEY.thenComparingLong(keyed -> keyed.seq);
 
     public List<Task> sortTasks(List<Task> tasks) {
-        return tasks.stream()
-                .sorted(schedulingComparator)
-                .collect(Collectors.toList());
+        return sortTasks(tasks, LocalDateTime.now());
+    }
+
+    /**
+     * Sorts primitive longs, not objects: each holds the high bits of a task's key with the task's index in the
+     * low bits, sign-flipped so a signed sort gives the unsigned key order. The index breaks ties, so equal keys
+     * keep their input order. Tasks whose keys differ only in the bits the index took form runs, which are then
+     * put in order by those bits alone.
+     */
+    public List<Task> sortTasks(List<Task> tasks, LocalDateTime now) {
+        int n = tasks.size();
+        int indexBits = Math.max(1, 64 - Long.numberOfLeadingZeros(Math.max(1, n - 1)));
+        long indexMask = (1L << indexBits) - 1;
+        long[] keys = new long[n];
+        long[] packed = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = sortKey(tasks.get(i), now);
+            packed[i] = (keys[i] & ~indexMask | i) ^ Long.MIN_VALUE;
+        }
+        if (n >= PARALLEL_THRESHOLD) {
+            Arrays.parallelSort(packed);
+        } else {
+            Arrays.sort(packed);
+        }
+        int runStart = 0;
+        for (int i = 1; i <= n; i++) {
+            if (i == n || (packed[i] & ~indexMask) != (packed[runStart] & ~indexMask)) {
+                if (i - runStart > 1) {
+                    sortRun(packed, runStart, i, keys, indexBits, indexMask);
+                }
+                runStart = i;
+            }
+        }
+        List<Task> sorted = new ArrayList<>(n);
+        for (long entry : packed) {
+            sorted.add(tasks.get((int) (entry & indexMask)));
+        }
+        return sorted;
+    }
+
+    /**
+     * Orders a run of equal high bits by the key bits the index displaced, then by index. Both fit in indexBits
+     * (at most 31), so the pair packs into one non-negative long.
+     */
+    private static void sortRun(long[] packed, int from, int to, long[] keys, int indexBits, long indexMask) {
+        long high = packed[from] & ~indexMask;
+        for (int i = from; i < to; i++) {
+            int index = (int) (packed[i] & indexMask);
+            packed[i] = (keys[index] & indexMask) << indexBits | index;
+        }
+        Arrays.sort(packed, from, to);
+        for (int i = from; i < to; i++) {
+            packed[i] = high | packed[i] & indexMask;
+        }
+    }
+
+    /**
+     * The k tasks that sortTasks would put first, in the same order, without sorting the rest.
+     */
+    public List<Task> topK(Collection<Task> tasks, int k, LocalDateTime now) {
+        if (k <= 0 || tasks.isEmpty()) {
+            return new ArrayList<>();
+        }
+        PriorityQueue<Keyed> heap = new PriorityQueue<>(Math.min(k, tasks.size()) + 1, BY_KEY_THEN_SEQ.reversed());
+        long seq = 0;
+        for (Task task : tasks) {
+            long key = sortKey(task, now);
+            // a later task with an equal key ranks behind, so it never displaces anything
+            if (heap.size() < k) {
+                heap.add(new Keyed(key, task, seq));
+            } else if (Long.compareUnsigned(key, heap.peek().key) < 0) {
+                heap.poll();
+                heap.add(new Keyed(key, task, seq));
+            }
+            seq++;
+        }
+        return drain(heap, BY_KEY_THEN_SEQ);
+    }
+
+    /**
+     * The k smallest tasks under the given order; ties keep their encounter order.
+     * Bounded max-heap of the best k seen so far: O(n log k) time, O(k) space.
+     */
+    public List<Task> topK(Collection<Task> tasks, int k, Comparator<? super Task> order) {
+        if (k <= 0 || tasks.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Comparator<Keyed> stable = Comparator.<Keyed, Task>comparing(keyed -> keyed.task, order)
+                .thenComparingLong(keyed -> keyed.seq);
+        PriorityQueue<Keyed> heap = new PriorityQueue<>(Math.min(k, tasks.size()) + 1, stable.reversed());
+        long seq = 0;
+        for (Task task : tasks) {
+            Keyed keyed = new Keyed(0, task, seq++);
+            if (heap.size() < k) {
+                heap.add(keyed);
+            } else if (stable.compare(keyed, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(keyed);
+            }
+        }
+        return drain(heap, stable);
+    }
+
+    private static List<Task> drain(PriorityQueue<Keyed> heap, Comparator<Keyed> order) {
+        Keyed[] best = heap.toArray(new Keyed[0]);
+        Arrays.sort(best, order);
+        List<Task> result = new ArrayList<>(best.length);
+        for (Keyed keyed : best) {
+            result.add(keyed.task);
+        }
+        return result;
+    }
+
+    /**
+     * Unsigned ordering of the key equals the scheduling order. Remaining minutes are clamped to about
+     * +-130k years and estimates to about 16 years; "no deadline" and "no estimate" map to the maximum.
+     */
+    static long sortKey(Task task, LocalDateTime now) {
+        int weight = task.getPriority() != null ? task.getPriority().getWeight() : 0;
+        long priorityField = 7 - Math.max(0, Math.min(7, weight));
+
+        long remaining = task.remainingMinutes(now);
+        long remainingField = remaining == Long.MAX_VALUE ? MAX_REMAINING
+                : Math.max(0, Math.min(MAX_REMAINING, remaining + REMAINING_OFFSET));
+
+        long estimateField = Math.max(0, Math.min(MAX_ESTIMATE, task.getEstimatedMinutes()));
+
+        return priorityField << (REMAINING_BITS + ESTIMATE_BITS) | remainingField << ESTIMATE_BITS | estimateField;
+    }
+
+    private static class Keyed {
+        final long key;
+        final Task task;
+        final long seq;
+
+        Keyed(long key, Task task, long seq) {
+            this.key = key;
+            this.task = task;
+            this.seq = seq;
+        }
     }
 }
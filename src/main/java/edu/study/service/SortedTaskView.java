@@ -0,0 +1,101 @@
+package edu.study.service;
+
+import edu.study.model.EpochMinutes;
+import edu.study.model.Task;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Tasks kept in scheduling order: priority (highest first), deadline, estimated minutes, then id.
+ * Ordering by deadline instead of "minutes left" gives the same order without depending on the clock,
+ * so the view only changes when a task does. An order-statistic treap: put and remove are O(log n),
+ * a page of k tasks at any offset is O(log n + k). Not thread-safe; TaskService guards it.
+ */
+public class SortedTaskView {
+    private static final Comparator<Node> SCHEDULING_ORDER = Comparator.<Node>comparingInt(node -> -node.weight)
+            .thenComparingLong(node -> node.deadline)
+            .thenComparingLong(node -> node.estimateMinutes)
+            .thenComparing(node -> node.id);
+
+    private final Treap<Node> treap = new Treap<>(SCHEDULING_ORDER);
+
+    /**
+     * Adds the task or moves it to the position its current priority, deadline and estimate call for.
+     */
+    public void put(Task task) {
+        if (task.getTaskId() != null) {
+            treap.put(new Node(task));
+        }
+    }
+
+    public void remove(UUID id) {
+        treap.remove(id);
+    }
+
+    /**
+     * Up to limit tasks starting at the given rank.
+     */
+    public List<Task> page(int offset, int limit) {
+        List<Task> result = new ArrayList<>(Math.max(0, Math.min(limit, size() - offset)));
+        if (offset >= 0 && limit > 0) {
+            collect(treap.root(), offset, limit, result);
+        }
+        return result;
+    }
+
+    public List<Task> toList() {
+        return page(0, size());
+    }
+
+    public int size() {
+        return treap.size();
+    }
+
+    public void clear() {
+        treap.clear();
+    }
+
+    private void collect(Node node, int offset, int limit, List<Task> out) {
+        if (node == null || out.size() >= limit) {
+            return;
+        }
+        int leftSize = size(node.left);
+        if (offset < leftSize) {
+            collect(node.left, offset, limit, out);
+        }
+        if (out.size() >= limit) {
+            return;
+        }
+        if (offset <= leftSize) {
+            out.add(node.task);
+        }
+        collect(node.right, Math.max(0, offset - leftSize - 1), limit, out);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static class Node extends Treap.Node<Node> {
+        final int weight;
+        // epoch minute, tasks without a deadline last
+        final long deadline;
+        final long estimateMinutes;
+        int size = 1;
+
+        Node(Task task) {
+            super(task);
+            this.weight = task.getPriority() != null ? task.getPriority().getWeight() : 0;
+            long deadline = task.getDeadlineEpochMinute();
+            this.deadline = deadline == EpochMinutes.NONE ? Long.MAX_VALUE : deadline;
+            this.estimateMinutes = task.getEstimatedMinutes();
+        }
+
+        @Override
+        void update() {
+            size = 1 + SortedTaskView.size(left) + SortedTaskView.size(right);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package edu.study.service;
+
+import edu.study.model.Task;
+import edu.study.model.TaskStatus;
+
+public final class StatusChanged extends TaskEvent {
+    private final Task task;
+    private final TaskStatus from;
+    private final TaskStatus to;
+
+    StatusChanged(long sequence, Task task, TaskStatus from) {
+        super(sequence, task.getTaskId());
+        this.task = task;
+        this.from = from;
+        this.to = task.getStatus();
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public TaskStatus getFrom() {
+        return from;
+    }
+
+    public TaskStatus getTo() {
+        return to;
+    }
+}
@@ -0,0 +1,16 @@
+package edu.study.service;
+
+import edu.study.model.Task;
+
+public final class TaskAdded extends TaskEvent {
+    private final Task task;
+
+    TaskAdded(long sequence, Task task) {
+        super(sequence, task.getTaskId());
+        this.task = task;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+}
@@ -0,0 +1,355 @@
+package edu.study.service;
+
+import edu.study.model.EpochMinutes;
+import edu.study.model.Priority;
+import edu.study.model.Task;
+import edu.study.model.TaskStatus;
+import edu.study.util.LongLongHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * Column-per-field shadow of the task set for analytics: each aggregate is a loop over a few primitive arrays
+ * instead of a walk over Task objects. Rows are dense, a removed row is filled with the last one.
+ * Kept in sync from TaskService's events; readers take a read lock for the length of one scan.
+ */
+public class TaskColumns implements TaskEventListener {
+    public static final int NO_DAY = Integer.MIN_VALUE;
+    public static final int NO_COURSE = -1;
+    public static final int NOT_MEASURED = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final int PRIORITY_COUNT = PRIORITIES.length;
+
+    private final Supplier<TaskListing> source;
+    private final StampedLock lock = new StampedLock();
+    private final Map<UUID, Integer> rows = new HashMap<>();
+    private final Map<String, Integer> courseIndex = new HashMap<>();
+    private final List<String> courses = new ArrayList<>();
+    private UUID[] ids = new UUID[INITIAL_CAPACITY];
+    private byte[] status = new byte[INITIAL_CAPACITY];
+    private byte[] priority = new byte[INITIAL_CAPACITY];
+    private int[] completedDay = new int[INITIAL_CAPACITY];
+    private long[] deadline = new long[INITIAL_CAPACITY];
+    private int[] estimate = new int[INITIAL_CAPACITY];
+    private int[] postpones = new int[INITIAL_CAPACITY];
+    private int[] course = new int[INITIAL_CAPACITY];
+    // minutes from startTime to completedAt, NOT_MEASURED for unscheduled or open tasks
+    private int[] completionMinutes = new int[INITIAL_CAPACITY];
+    private int size;
+    private long applied;
+
+    /**
+     * @param source the full task set, read again whenever the service reports a reset
+     */
+    public TaskColumns(Supplier<TaskListing> source) {
+        this.source = source;
+    }
+
+    /**
+     * Columns that follow the service from now on, filled from its current tasks.
+     */
+    public static TaskColumns attach(TaskService service) {
+        TaskColumns columns = new TaskColumns(service::listing);
+        service.subscribe(columns);
+        columns.rebuild();
+        return columns;
+    }
+
+    @Override
+    public void onEvents(TaskEventBatch batch) {
+        long stamp = lock.writeLock();
+        try {
+            if (batch.getLastSequence() <= applied) {
+                // already in the listing the columns were last rebuilt from
+                return;
+            }
+            if (batch.isReset()) {
+                rebuildFrom(source.get());
+                return;
+            }
+            applied = batch.getLastSequence();
+            for (TaskEvent event : batch.getEvents()) {
+                if (event instanceof TaskDeleted) {
+                    removeRow(event.getTaskId());
+                } else if (event instanceof TaskAdded added) {
+                    putRow(added.getTask());
+                } else if (event instanceof TaskUpdated updated) {
+                    putRow(updated.getTask());
+                } else if (event instanceof StatusChanged changed) {
+                    putRow(changed.getTask());
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Refills the columns from the source. The listing is read under the lock, so a batch delivered meanwhile
+     * either waits and is skipped as already seen, or was applied before and is overwritten by newer state.
+     */
+    public void rebuild() {
+        long stamp = lock.writeLock();
+        try {
+            rebuildFrom(source.get());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void rebuildFrom(TaskListing listing) {
+        rows.clear();
+        Arrays.fill(ids, 0, size, null);
+        size = 0;
+        for (Task task : listing.getTasks()) {
+            putRow(task);
+        }
+        applied = listing.getSequence();
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int countByStatus(TaskStatus wanted) {
+        byte ordinal = (byte) wanted.ordinal();
+        long stamp = lock.readLock();
+        try {
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                count += status[i] == ordinal ? 1 : 0;
+            }
+            return count;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int countCompletedOn(long epochDay) {
+        long stamp = lock.readLock();
+        try {
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                count += completedDay[i] == epochDay ? 1 : 0;
+            }
+            return count;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Replaces the contents of out with epoch day to number of tasks completed that day.
+     */
+    public void completionsByDay(LongLongHashMap out) {
+        out.clear();
+        long stamp = lock.readLock();
+        try {
+            for (int i = 0; i < size; i++) {
+                if (completedDay[i] != NO_DAY) {
+                    out.addTo(completedDay[i], 1);
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Completion minutes (startTime to completedAt) of scheduled, completed tasks, grouped by priority ordinal.
+     */
+    public void completionMinutesByPriority(CompletionStats out) {
+        long stamp = lock.readLock();
+        try {
+            out.reset(PRIORITY_COUNT);
+            for (int i = 0; i < size; i++) {
+                if (completionMinutes[i] != NOT_MEASURED) {
+                    out.add(priority[i], completionMinutes[i]);
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Like completionMinutesByPriority, grouped by course index; see {@link #courseId(int)}.
+     * Tasks without a course are left out.
+     */
+    public void completionMinutesByCourse(CompletionStats out) {
+        long stamp = lock.readLock();
+        try {
+            out.reset(courses.size());
+            for (int i = 0; i < size; i++) {
+                if (completionMinutes[i] != NOT_MEASURED && course[i] != NO_COURSE) {
+                    out.add(course[i], completionMinutes[i]);
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Open tasks whose deadline is closer than their calibrated estimate at the given epoch minute: the column form
+     * of {@link AnalyticsService#isHighRisk}. Factors are looked up once per course and priority, not per row.
+     */
+    public int countAtRisk(long epochMinute, EstimateCalibration calibration) {
+        byte done = (byte) TaskStatus.DONE.ordinal();
+        long stamp = lock.readLock();
+        try {
+            double[] factors = new double[(courses.size() + 1) * PRIORITY_COUNT];
+            for (int c = 0; c <= courses.size(); c++) {
+                String courseId = c < courses.size() ? courses.get(c) : null;
+                for (int p = 0; p < PRIORITY_COUNT; p++) {
+                    factors[c * PRIORITY_COUNT + p] = calibration.factor(PRIORITIES[p], courseId);
+                }
+            }
+            int noCourse = courses.size();
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (status[i] == done || deadline[i] == EpochMinutes.NONE) {
+                    continue;
+                }
+                int group = (course[i] != NO_COURSE ? course[i] : noCourse) * PRIORITY_COUNT + priority[i];
+                long calibrated = Math.min(Integer.MAX_VALUE, Math.round(estimate[i] * factors[group]));
+                count += deadline[i] - Math.max(0, calibrated) < epochMinute ? 1 : 0;
+            }
+            return count;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public long totalEstimateMinutes(TaskStatus wanted) {
+        byte ordinal = (byte) wanted.ordinal();
+        long stamp = lock.readLock();
+        try {
+            long total = 0;
+            for (int i = 0; i < size; i++) {
+                total += status[i] == ordinal ? estimate[i] : 0;
+            }
+            return total;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public long totalPostpones() {
+        long stamp = lock.readLock();
+        try {
+            long total = 0;
+            for (int i = 0; i < size; i++) {
+                total += postpones[i];
+            }
+            return total;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Course indexes are handed out on first sight and never reused.
+     */
+    public String courseId(int index) {
+        long stamp = lock.readLock();
+        try {
+            return courses.get(index);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void putRow(Task task) {
+        UUID id = task.getTaskId();
+        if (id == null) {
+            return;
+        }
+        Integer existing = rows.get(id);
+        int row;
+        if (existing != null) {
+            row = existing;
+        } else {
+            ensureCapacity(size + 1);
+            row = size++;
+            rows.put(id, row);
+            ids[row] = id;
+        }
+        status[row] = (byte) (task.getStatus() != null ? task.getStatus().ordinal() : 0);
+        priority[row] = (byte) (task.getPriority() != null ? task.getPriority().ordinal() : 0);
+        long completed = task.getCompletedEpochMinute();
+        completedDay[row] = completed == EpochMinutes.NONE ? NO_DAY : (int) EpochMinutes.toEpochDay(completed);
+        deadline[row] = task.getDeadlineEpochMinute();
+        estimate[row] = task.getEstimatedMinutes();
+        postpones[row] = task.getPostponeCount();
+        course[row] = courseIndex(task.getCourseId());
+        long start = task.getStartEpochMinute();
+        long elapsed = completed - start;
+        completionMinutes[row] = completed == EpochMinutes.NONE || start == EpochMinutes.NONE || elapsed < 0
+                ? NOT_MEASURED : (int) Math.min(Integer.MAX_VALUE, elapsed);
+    }
+
+    private int courseIndex(String courseId) {
+        if (courseId == null) {
+            return NO_COURSE;
+        }
+        Integer index = courseIndex.get(courseId);
+        if (index == null) {
+            index = courses.size();
+            courses.add(courseId);
+            courseIndex.put(courseId, index);
+        }
+        return index;
+    }
+
+    private void removeRow(UUID id) {
+        Integer removed = rows.remove(id);
+        if (removed == null) {
+            return;
+        }
+        int row = removed;
+        int last = --size;
+        if (row != last) {
+            ids[row] = ids[last];
+            status[row] = status[last];
+            priority[row] = priority[last];
+            completedDay[row] = completedDay[last];
+            deadline[row] = deadline[last];
+            estimate[row] = estimate[last];
+            postpones[row] = postpones[last];
+            course[row] = course[last];
+            completionMinutes[row] = completionMinutes[last];
+            rows.put(ids[row], row);
+        }
+        ids[last] = null;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(needed, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        status = Arrays.copyOf(status, capacity);
+        priority = Arrays.copyOf(priority, capacity);
+        completedDay = Arrays.copyOf(completedDay, capacity);
+        deadline = Arrays.copyOf(deadline, capacity);
+        estimate = Arrays.copyOf(estimate, capacity);
+        postpones = Arrays.copyOf(postpones, capacity);
+        course = Arrays.copyOf(course, capacity);
+        completionMinutes = Arrays.copyOf(completionMinutes, capacity);
+    }
+}
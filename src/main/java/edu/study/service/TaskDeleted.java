@@ -0,0 +1,19 @@
+package edu.study.service;
+
+import edu.study.model.Task;
+
+public final class TaskDeleted extends TaskEvent {
+    private final Task task;
+
+    TaskDeleted(long sequence, Task task) {
+        super(sequence, task.getTaskId());
+        this.task = task;
+    }
+
+    /**
+     * The task as it was when it was removed.
+     */
+    public Task getTask() {
+        return task;
+    }
+}
@@ -0,0 +1,25 @@
+package edu.study.service;
+
+import java.util.UUID;
+
+/**
+ * One change published by {@link TaskService}. Sequence numbers start at 1 and grow by one per event,
+ * in the order the changes were committed.
+ */
+public abstract class TaskEvent {
+    private final long sequence;
+    private final UUID taskId;
+
+    TaskEvent(long sequence, UUID taskId) {
+        this.sequence = sequence;
+        this.taskId = taskId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public UUID getTaskId() {
+        return taskId;
+    }
+}
@@ -0,0 +1,38 @@
+package edu.study.service;
+
+import java.util.List;
+
+/**
+ * Everything one service call committed, coalesced per task: a task touched several times appears once with its
+ * net change, and a task added and deleted in the same call does not appear at all.
+ */
+public class TaskEventBatch {
+    private final List<TaskEvent> events;
+    private final long lastSequence;
+    private final boolean reset;
+
+    TaskEventBatch(List<TaskEvent> events, long lastSequence, boolean reset) {
+        this.events = List.copyOf(events);
+        this.lastSequence = lastSequence;
+        this.reset = reset;
+    }
+
+    public List<TaskEvent> getEvents() {
+        return events;
+    }
+
+    /**
+     * Sequence of the newest event published so far, including this batch; a reset has a number of its own.
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * The task set was replaced wholesale (load, reload, reset or history merge) and no per-task events were sent;
+     * subscribers that keep derived state should rebuild it from {@link TaskService#listing()}.
+     */
+    public boolean isReset() {
+        return reset;
+    }
+}
@@ -0,0 +1,184 @@
+package edu.study.service;
+
+import edu.study.model.Task;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Turns the task versions TaskService publishes into {@link TaskEvent}s.
+ * record and commit run under the service's write lock, so sequence numbers follow commit order; deliver runs after
+ * the lock is released, so a synchronous subscriber may call back into the service. Each asynchronous subscriber
+ * gets its own thread and sees the batches in the same order.
+ */
+class TaskEventBus {
+    private final Map<UUID, Change> pending = new LinkedHashMap<>();
+    private final Queue<TaskEventBatch> committed = new ConcurrentLinkedQueue<>();
+    private final List<TaskEventListener> listeners = new CopyOnWriteArrayList<>();
+    private final List<AsyncListener> asyncListeners = new CopyOnWriteArrayList<>();
+    private boolean resetPending;
+    private long sequence;
+    private boolean delivering;
+
+    void subscribe(TaskEventListener listener) {
+        listeners.add(listener);
+    }
+
+    void subscribeAsync(TaskEventListener listener) {
+        asyncListeners.add(new AsyncListener(listener));
+    }
+
+    void unsubscribe(TaskEventListener listener) {
+        listeners.remove(listener);
+        for (AsyncListener async : asyncListeners) {
+            if (async.listener == listener && asyncListeners.remove(async)) {
+                async.executor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Notes one replacement in the table: before is null for an added task, after is null for a removed one.
+     * Only the first before and the last after of each task are kept until commit.
+     */
+    void record(Task before, Task after) {
+        if (before == after) {
+            return;
+        }
+        UUID id = before != null ? before.getTaskId() : after.getTaskId();
+        Change change = pending.get(id);
+        if (change == null) {
+            pending.put(id, new Change(before, after));
+        } else {
+            change.after = after;
+        }
+    }
+
+    /**
+     * Discards the recorded changes in favour of a single reset batch.
+     */
+    void reset() {
+        pending.clear();
+        resetPending = true;
+    }
+
+    /**
+     * Sequence of the newest committed event; read under the service lock, which commit also runs under.
+     */
+    long sequence() {
+        return sequence;
+    }
+
+    void commit() {
+        if (resetPending) {
+            resetPending = false;
+            pending.clear();
+            // a reset takes a sequence number of its own, so a listing read after it can tell it was already seen
+            committed.add(new TaskEventBatch(List.of(), ++sequence, true));
+            return;
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<TaskEvent> events = new ArrayList<>(pending.size());
+        for (Change change : pending.values()) {
+            change.toEvents(events);
+        }
+        pending.clear();
+        if (!events.isEmpty()) {
+            committed.add(new TaskEventBatch(events, sequence, false));
+        }
+    }
+
+    /**
+     * Hands every committed batch to the subscribers, oldest first. Whichever thread gets here first delivers
+     * everything queued so far; a subscriber that mutates the service has its batch delivered by the outer loop.
+     */
+    synchronized void deliver() {
+        if (delivering) {
+            return;
+        }
+        delivering = true;
+        try {
+            TaskEventBatch batch;
+            while ((batch = committed.poll()) != null) {
+                for (AsyncListener async : asyncListeners) {
+                    async.submit(batch);
+                }
+                for (TaskEventListener listener : listeners) {
+                    notify(listener, batch);
+                }
+            }
+        } finally {
+            delivering = false;
+        }
+    }
+
+    private static void notify(TaskEventListener listener, TaskEventBatch batch) {
+        try {
+            listener.onEvents(batch);
+        } catch (RuntimeException e) {
+            // a failing subscriber must not undo or block the change that was already committed
+            System.err.println("[events] Subscriber failed: " + e);
+        }
+    }
+
+    private class Change {
+        private final Task before;
+        private Task after;
+
+        Change(Task before, Task after) {
+            this.before = before;
+            this.after = after;
+        }
+
+        void toEvents(List<TaskEvent> out) {
+            if (before == null) {
+                if (after != null) {
+                    out.add(new TaskAdded(++sequence, after));
+                }
+            } else if (after == null) {
+                out.add(new TaskDeleted(++sequence, before));
+            } else if (before != after) {
+                Set<TaskField> fields = TaskField.changed(before, after);
+                boolean statusChanged = fields.remove(TaskField.STATUS);
+                if (!fields.isEmpty()) {
+                    out.add(new TaskUpdated(++sequence, before, after, fields));
+                }
+                if (statusChanged) {
+                    out.add(new StatusChanged(++sequence, after, before.getStatus()));
+                }
+            }
+        }
+    }
+
+    private static class AsyncListener {
+        private final TaskEventListener listener;
+        private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        AsyncListener(TaskEventListener listener) {
+            this.listener = listener;
+        }
+
+        void submit(TaskEventBatch batch) {
+            try {
+                executor.execute(() -> TaskEventBus.notify(listener, batch));
+            } catch (RejectedExecutionException e) {
+                // unsubscribed while this batch was being delivered
+            }
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package edu.study.service;
+
+@FunctionalInterface
+public interface TaskEventListener {
+    void onEvents(TaskEventBatch batch);
+}
@@ -0,0 +1,39 @@
+package edu.study.service;
+
+import edu.study.model.Task;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The user-visible fields a {@link TaskUpdated} can report; updatedAt changes with every edit and is left out.
+ */
+public enum TaskField {
+    TITLE(Task::getTitle),
+    DESCRIPTION(Task::getDescription),
+    PRIORITY(Task::getPriority),
+    START_TIME(Task::getStartTime),
+    DEADLINE(Task::getDeadline),
+    ESTIMATED_TIME(Task::getEstimatedTime),
+    COURSE_ID(Task::getCourseId),
+    STATUS(Task::getStatus),
+    COMPLETED_AT(Task::getCompletedAt),
+    POSTPONE_COUNT(Task::getPostponeCount);
+
+    private final Function<Task, Object> getter;
+
+    TaskField(Function<Task, Object> getter) {
+        this.getter = getter;
+    }
+
+    public static Set<TaskField> changed(Task before, Task after) {
+        Set<TaskField> fields = EnumSet.noneOf(TaskField.class);
+        for (TaskField field : values()) {
+            if (!Objects.equals(field.getter.apply(before), field.getter.apply(after))) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+}
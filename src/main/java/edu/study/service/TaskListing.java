@@ -0,0 +1,35 @@
+package edu.study.service;
+
+import edu.study.model.Task;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Every task together with the sequence of the last event committed before they were read. A subscriber that
+ * rebuilds from a listing already reflects every batch whose {@link TaskEventBatch#getLastSequence()} is at or
+ * below it, and must skip those batches when they arrive.
+ */
+public class TaskListing {
+    private final List<Task> tasks;
+    private final long sequence;
+
+    TaskListing(List<Task> tasks, long sequence) {
+        this.tasks = tasks;
+        this.sequence = sequence;
+    }
+
+    /**
+     * A listing of tasks that do not come from a service, so no batch is taken as already seen.
+     */
+    public static TaskListing of(Collection<Task> tasks) {
+        return new TaskListing(List.copyOf(tasks), 0);
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+}
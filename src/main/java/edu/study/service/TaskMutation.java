@@ -0,0 +1,64 @@
+package edu.study.service;
+
+import edu.study.model.TaskDraft;
+import edu.study.model.TaskStatus;
+import java.util.UUID;
+
+/**
+ * One step of a batch passed to {@link TaskService#applyBatch}.
+ */
+public class TaskMutation {
+    public enum Kind {
+        ADD,
+        UPDATE,
+        STATUS,
+        DELETE
+    }
+
+    private final Kind kind;
+    private final UUID taskId;
+    private final TaskDraft draft;
+    private final TaskStatus status;
+
+    private TaskMutation(Kind kind, UUID taskId, TaskDraft draft, TaskStatus status) {
+        this.kind = kind;
+        this.taskId = taskId;
+        this.draft = draft;
+        this.status = status;
+    }
+
+    public static TaskMutation add(TaskDraft draft) {
+        return new TaskMutation(Kind.ADD, null, draft, null);
+    }
+
+    /**
+     * Null fields of the draft leave the task's value unchanged.
+     */
+    public static TaskMutation update(UUID taskId, TaskDraft changes) {
+        return new TaskMutation(Kind.UPDATE, taskId, changes, null);
+    }
+
+    public static TaskMutation status(UUID taskId, TaskStatus status) {
+        return new TaskMutation(Kind.STATUS, taskId, null, status);
+    }
+
+    public static TaskMutation delete(UUID taskId) {
+        return new TaskMutation(Kind.DELETE, taskId, null, null);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public UUID getTaskId() {
+        return taskId;
+    }
+
+    public TaskDraft getDraft() {
+        return draft;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+}
@@ -2,116 +2,373 @@ package edu.study.service;
 
 import edu.study.model.Priority;
 import edu.study.model.Task;
+import edu.study.model.TaskDraft;
 import edu.study.model.TaskStatus;
 import edu.study.repository.TaskRepository;
+import edu.study.repository.TaskTable;
+import edu.study.repository.WriteStats;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
 
+/**
+ * Reads of the task set go straight to the table's immutable snapshot without any lock; index queries take a
+ * shared read lock. Only mutations, the overdue timer and history merges contend for the write lock.
+ * A published task is never edited: every change builds a copy and publishes it, so the repository can write the
+ * very objects the service holds and no second copy of the task set is kept.
+ */
 public class TaskService {
     private final TaskRepository repository;
     private final SchedulingService schedulingService;
-    private final List<Task> tasks = new ArrayList<>();
+    private final PersistenceExecutor persistence;
+    private final TaskTable tasks;
+    private final boolean sharedTable;
+    private final DeadlineIndex deadlines = new DeadlineIndex();
+    private final ScheduleIndex schedule = new ScheduleIndex();
+    private final SortedTaskView sorted = new SortedTaskView();
+    private final OverdueScheduler overdue = new OverdueScheduler(this::expireOverdue);
+    private final TaskEventBus events = new TaskEventBus();
+    private final List<UUID> pendingDeletes = new ArrayList<>();
+    private final StampedLock lock = new StampedLock();
+    private CompletableFuture<List<Task>> completedTasks;
+    private boolean completedMerged;
 
     public TaskService(TaskRepository repository, SchedulingService schedulingService) {
+        this(repository, schedulingService, new PersistenceExecutor(repository));
+    }
+
+    public TaskService(TaskRepository repository, SchedulingService schedulingService, PersistenceExecutor persistence) {
         this.repository = repository;
         this.schedulingService = schedulingService;
-        this.tasks.addAll(repository.findAll());
-        refreshStatuses();
+        this.persistence = persistence;
+        Optional<TaskTable> shared = repository.sharedTable();
+        this.tasks = shared.orElseGet(TaskTable::new);
+        this.sharedTable = shared.isPresent();
+        mutate(this::loadTasks);
+        trackCompletedTasks();
+    }
+
+    /**
+     * Must be called without the lock held: the callback runs inline when the history is already loaded.
+     */
+    private void trackCompletedTasks() {
+        CompletableFuture<List<Task>> pending = repository.completedTasks();
+        mutate(() -> {
+            completedTasks = pending;
+            completedMerged = false;
+        });
+        pending.thenAccept(done -> mutate(() -> mergeCompletedTasks(pending, done)));
     }
 
-    public synchronized Task addTask(String title, String description, Priority priority, LocalDateTime startTime,
-                                     LocalDateTime deadline, Duration estimatedTime, String courseId) {
-        if (deadline == null) {
-            throw new IllegalArgumentException("deadline is required");
+    private void mergeCompletedTasks(CompletableFuture<List<Task>> pending, List<Task> done) {
+        if (pending != completedTasks || completedMerged) {
+            return;
         }
-        Task task = new Task(title, description, priority, startTime, deadline, estimatedTime, courseId);
-        task.refreshStatus(LocalDateTime.now());
-        tasks.add(task);
-        persist();
-        return task;
+        for (Task task : done) {
+            // with a shared table the repository may have merged this very task already
+            if (tasks.putIfAbsent(task) == task) {
+                task.markClean();
+                index(task);
+            }
+        }
+        completedMerged = true;
+        events.reset();
     }
 
-    public synchronized Optional<Task> updateTask(UUID taskId, String title, String description, Priority priority,
-                                                  LocalDateTime startTime, LocalDateTime deadline, Duration estimatedTime, String courseId) {
-        Optional<Task> existing = findById(taskId);
-        existing.ifPresent(task -> {
-            if (title != null) task.setTitle(title);
-            if (description != null) task.setDescription(description);
-            if (priority != null) task.setPriority(priority);
-            if (startTime != null) task.setStartTime(startTime);
-            if (deadline != null) task.setDeadline(deadline);
-            if (estimatedTime != null) task.setEstimatedTime(estimatedTime);
-            if (courseId != null) task.setCourseId(courseId);
-            task.setUpdatedAt(LocalDateTime.now());
-            if (task.getStatus() == TaskStatus.OVERDUE && task.getDeadline() != null
-                    && task.getDeadline().isAfter(LocalDateTime.now())) {
-                task.setStatus(TaskStatus.TODO);
+    public Task addTask(String title, String description, Priority priority, LocalDateTime startTime,
+                        LocalDateTime deadline, Duration estimatedTime, String courseId) {
+        return addTasks(List.of(new TaskDraft(title, description, priority, startTime, deadline, estimatedTime, courseId))).get(0);
+    }
+
+    /**
+     * Validates every draft before creating any task, then adds them all under one lock and persists them as one change.
+     */
+    public List<Task> addTasks(List<TaskDraft> drafts) {
+        drafts.forEach(TaskService::requireDeadline);
+        List<Task> created = new ArrayList<>(drafts.size());
+        for (TaskDraft draft : drafts) {
+            created.add(newTask(draft));
+        }
+        mutate(() -> {
+            created.forEach(this::publish);
+            persistChanges(created);
+        });
+        return created;
+    }
+
+    /**
+     * Applies the mutations in order as one unit: if any step is invalid (missing deadline, unknown or already
+     * deleted task) nothing is applied. Everything that changed is persisted as one change.
+     *
+     * @return the added and modified tasks that still exist, in the order they were first touched
+     */
+    public List<Task> applyBatch(List<TaskMutation> batch) {
+        for (TaskMutation mutation : batch) {
+            switch (mutation.getKind()) {
+                case ADD -> requireDeadline(mutation.getDraft());
+                case UPDATE -> requireArgument(mutation.getDraft() != null, "update needs a draft");
+                case STATUS -> requireArgument(mutation.getStatus() != null, "status is required");
+                case DELETE -> { }
+            }
+        }
+        return write(() -> {
+            Set<UUID> deleted = new HashSet<>();
+            for (TaskMutation mutation : batch) {
+                if (mutation.getKind() == TaskMutation.Kind.ADD) {
+                    continue;
+                }
+                UUID id = mutation.getTaskId();
+                requireArgument(tasks.contains(id) && !deleted.contains(id), "unknown task: " + id);
+                if (mutation.getKind() == TaskMutation.Kind.DELETE) {
+                    deleted.add(id);
+                }
+            }
+            Map<UUID, Task> touched = new LinkedHashMap<>();
+            for (TaskMutation mutation : batch) {
+                switch (mutation.getKind()) {
+                    case ADD -> {
+                        Task task = newTask(mutation.getDraft());
+                        publish(task);
+                        touched.put(task.getTaskId(), task);
+                    }
+                    case UPDATE -> {
+                        Task task = applyUpdate(tasks.get(mutation.getTaskId()), mutation.getDraft());
+                        touched.put(task.getTaskId(), task);
+                    }
+                    case STATUS -> {
+                        Task task = applyStatus(tasks.get(mutation.getTaskId()), mutation.getStatus());
+                        touched.put(task.getTaskId(), task);
+                    }
+                    case DELETE -> {
+                        applyDelete(mutation.getTaskId());
+                        touched.remove(mutation.getTaskId());
+                    }
+                }
             }
-            task.refreshStatus(LocalDateTime.now());
-            persist();
+            List<Task> result = new ArrayList<>(touched.values());
+            persistChanges(result);
+            return result;
         });
-        return existing;
     }
 
-    public synchronized Optional<Task> updateStatus(UUID taskId, TaskStatus status) {
-        Optional<Task> existing = findById(taskId);
-        existing.ifPresent(task -> {
-            if (status == TaskStatus.DONE) {
-                task.markDone();
-            } else {
-                task.setStatus(status);
+    public Optional<Task> updateTask(UUID taskId, String title, String description, Priority priority,
+                                     LocalDateTime startTime, LocalDateTime deadline, Duration estimatedTime, String courseId) {
+        TaskDraft changes = new TaskDraft(title, description, priority, startTime, deadline, estimatedTime, courseId);
+        return write(() -> Optional.ofNullable(tasks.get(taskId)).map(current -> {
+            Task task = applyUpdate(current, changes);
+            persistChanges(List.of(task));
+            return task;
+        }));
+    }
+
+    /**
+     * Moves the task's start time; moving it later counts as a postponement.
+     */
+    public Optional<Task> rescheduleTask(UUID taskId, LocalDateTime startTime) {
+        requireArgument(startTime != null, "start time is required");
+        return write(() -> Optional.ofNullable(tasks.get(taskId)).map(current -> {
+            Task task = current.copy();
+            if (task.getStartTime() != null && startTime.isAfter(task.getStartTime())) {
+                task.incrementPostponeCount();
             }
+            task.setStartTime(startTime);
             task.setUpdatedAt(LocalDateTime.now());
-            persist();
+            publish(task);
+            persistChanges(List.of(task));
+            return task;
+        }));
+    }
+
+    public Optional<Task> updateStatus(UUID taskId, TaskStatus status) {
+        return write(() -> Optional.ofNullable(tasks.get(taskId)).map(current -> {
+            Task task = applyStatus(current, status);
+            persistChanges(List.of(task));
+            return task;
+        }));
+    }
+
+    public boolean deleteTask(UUID taskId) {
+        return write(() -> {
+            boolean removed = applyDelete(taskId);
+            if (removed) {
+                persistChanges(List.of());
+            }
+            return removed;
         });
-        return existing;
     }
 
-    public synchronized boolean deleteTask(UUID taskId) {
-        boolean removed = tasks.removeIf(t -> t.getTaskId() != null && t.getTaskId().equals(taskId));
-        if (removed) {
-            persist();
+    private static void requireDeadline(TaskDraft draft) {
+        requireArgument(draft != null && draft.getDeadline() != null, "deadline is required");
+    }
+
+    private static void requireArgument(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalArgumentException(message);
         }
-        return removed;
     }
 
-    public synchronized List<Task> listTasks() {
-        refreshStatuses();
-        return new ArrayList<>(tasks);
+    private Task newTask(TaskDraft draft) {
+        Task task = new Task(draft.getTitle(), draft.getDescription(), draft.getPriority(), draft.getStartTime(),
+                draft.getDeadline(), draft.getEstimatedTime(), draft.getCourseId());
+        task.refreshStatus(LocalDateTime.now());
+        return task;
     }
 
-    public synchronized List<Task> listSortedTasks() {
-        refreshStatuses();
-        return schedulingService.sortTasks(tasks);
+    /**
+     * Adds the task or replaces the published version with the same id.
+     */
+    private void publish(Task task) {
+        events.record(tasks.put(task), task);
+        index(task);
     }
 
-    public synchronized Optional<Task> findById(UUID id) {
-        return tasks.stream()
-                .filter(t -> t.getTaskId() != null && t.getTaskId().equals(id))
-                .findFirst();
+    private Task applyUpdate(Task current, TaskDraft changes) {
+        Task task = current.copy();
+        if (changes.getTitle() != null) task.setTitle(changes.getTitle());
+        if (changes.getDescription() != null) task.setDescription(changes.getDescription());
+        if (changes.getPriority() != null) task.setPriority(changes.getPriority());
+        if (changes.getStartTime() != null) task.setStartTime(changes.getStartTime());
+        if (changes.getDeadline() != null) task.setDeadline(changes.getDeadline());
+        if (changes.getEstimatedTime() != null) task.setEstimatedTime(changes.getEstimatedTime());
+        if (changes.getCourseId() != null) task.setCourseId(changes.getCourseId());
+        task.setUpdatedAt(LocalDateTime.now());
+        if (task.getStatus() == TaskStatus.OVERDUE && task.getDeadline() != null
+                && task.getDeadline().isAfter(LocalDateTime.now())) {
+            task.setStatus(TaskStatus.TODO);
+        }
+        task.refreshStatus(LocalDateTime.now());
+        publish(task);
+        return task;
     }
 
-    public synchronized List<Task> tasksDueToday() {
-        refreshStatuses();
-        LocalDate today = LocalDate.now();
-        List<Task> dueToday = new ArrayList<>();
-        for (Task task : tasks) {
-            if (task.getDeadline() != null && task.getDeadline().toLocalDate().isEqual(today)) {
-                dueToday.add(task);
-            }
+    private Task applyStatus(Task current, TaskStatus status) {
+        Task task = current.copy();
+        if (status == TaskStatus.DONE) {
+            task.markDone();
+        } else {
+            task.setStatus(status);
         }
+        task.setUpdatedAt(LocalDateTime.now());
+        task.refreshStatus(LocalDateTime.now());
+        publish(task);
+        return task;
+    }
+
+    private boolean applyDelete(UUID taskId) {
+        Task removed = tasks.remove(taskId);
+        if (removed != null) {
+            events.record(removed, null);
+            deadlines.remove(taskId);
+            schedule.remove(taskId);
+            sorted.remove(taskId);
+            pendingDeletes.add(taskId);
+        }
+        return removed != null;
+    }
+
+    /**
+     * Immutable snapshot of every task; later changes publish a new snapshot instead of touching this one.
+     */
+    public List<Task> listTasks() {
+        return tasks.snapshot();
+    }
+
+    /**
+     * The same snapshot paired with the sequence of the last event committed before it, for subscribers that
+     * rebuild their state from it while batches keep arriving.
+     */
+    public TaskListing listing() {
+        return read(() -> new TaskListing(tasks.snapshot(), events.sequence()));
+    }
+
+    /**
+     * Scheduling order, read from the incrementally maintained view rather than sorted per call.
+     */
+    public List<Task> listSortedTasks() {
+        return read(sorted::toList);
+    }
+
+    public List<Task> listSortedTasks(int offset, int limit) {
+        return read(() -> sorted.page(offset, limit));
+    }
+
+    public Optional<Task> findById(UUID id) {
+        return Optional.ofNullable(tasks.get(id));
+    }
+
+    public List<Task> tasksDueToday() {
+        LocalDate today = LocalDate.now();
+        List<Task> dueToday = read(() -> deadlines.between(today.atStartOfDay(), today.plusDays(1).atStartOfDay()));
         return schedulingService.sortTasks(dueToday);
     }
 
-    public synchronized List<Task> tasksWithSchedule() {
-        refreshStatuses();
+    /**
+     * Tasks with from <= deadline < to, earliest deadline first.
+     */
+    public List<Task> tasksDueBetween(LocalDateTime from, LocalDateTime to) {
+        return read(() -> deadlines.between(from, to));
+    }
+
+    /**
+     * Scheduled tasks whose span [startTime, startTime + estimatedTime) intersects [from, to), ordered by start.
+     */
+    public List<Task> tasksOverlapping(LocalDateTime from, LocalDateTime to) {
+        return read(() -> schedule.overlapping(from, to));
+    }
+
+    /**
+     * The task whose scheduled span covers the instant; if several do, the one ranked first by the scheduler.
+     */
+    public Optional<Task> taskActiveAt(LocalDateTime instant) {
+        List<Task> active = read(() -> schedule.activeAt(instant));
+        if (active.size() > 1) {
+            active = schedulingService.sortTasks(active);
+        }
+        return active.stream().findFirst();
+    }
+
+    /**
+     * The k tasks listSortedTasks would return first, selected with a bounded heap instead of a full sort.
+     */
+    public List<Task> topTasks(int k) {
+        LocalDateTime now = LocalDateTime.now();
+        return schedulingService.topK(tasks.snapshot(), k, now);
+    }
+
+    public List<Task> topTasks(int k, Comparator<? super Task> order) {
+        return schedulingService.topK(tasks.snapshot(), k, order);
+    }
+
+    /**
+     * Up to limit scheduled tasks starting strictly after the instant, earliest first.
+     */
+    public List<Task> tasksStartingAfter(LocalDateTime instant, int limit) {
+        return read(() -> schedule.startingAfter(instant, limit));
+    }
+
+    public Optional<Task> nextStartingAfter(LocalDateTime instant) {
+        return read(() -> schedule.startingAfter(instant, 1)).stream().findFirst();
+    }
+
+    public int countWithoutSchedule() {
+        return readOptimistic(() -> tasks.size() - schedule.size());
+    }
+
+    public List<Task> tasksWithSchedule() {
         List<Task> scheduled = new ArrayList<>();
-        for (Task task : tasks) {
+        for (Task task : tasks.snapshot()) {
             if (task.getStartTime() != null) {
                 scheduled.add(task);
             }
@@ -119,10 +376,9 @@ public class TaskService {
         return schedulingService.sortTasks(scheduled);
     }
 
-    public synchronized List<Task> tasksWithoutSchedule() {
-        refreshStatuses();
+    public List<Task> tasksWithoutSchedule() {
         List<Task> unscheduled = new ArrayList<>();
-        for (Task task : tasks) {
+        for (Task task : tasks.snapshot()) {
             if (task.getStartTime() == null) {
                 unscheduled.add(task);
             }
@@ -137,23 +393,242 @@ public class TaskService {
         return unscheduled;
     }
 
-    public synchronized void refreshStatuses() {
+    /**
+     * Full sweep; reads rely on the overdue scheduler instead, this is only needed after loading.
+     */
+    public void refreshStatuses() {
+        mutate(this::refreshAll);
+    }
+
+    private void refreshAll() {
         LocalDateTime now = LocalDateTime.now();
-        tasks.forEach(t -> t.refreshStatus(now));
+        for (Task current : tasks.snapshot()) {
+            if (current.isOverdue(now) && current.getStatus() != TaskStatus.OVERDUE) {
+                Task task = current.copy();
+                task.refreshStatus(now);
+                publish(task);
+            }
+        }
+    }
+
+    /**
+     * Timer callback: flips the tasks whose deadline just passed and persists them.
+     */
+    private void expireOverdue() {
+        mutate(this::expireOverdueTasks);
+    }
+
+    private void expireOverdueTasks() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> expired = new ArrayList<>();
+        for (UUID id : overdue.pollDue(now)) {
+            Task current = tasks.get(id);
+            if (current != null && current.isOverdue(now) && current.getStatus() != TaskStatus.OVERDUE) {
+                Task task = current.copy();
+                task.refreshStatus(now);
+                publish(task);
+                expired.add(task);
+            }
+        }
+        if (!expired.isEmpty()) {
+            persistChanges(expired);
+        }
+    }
+
+    public void reload() {
+        mutate(this::loadTasks);
+        trackCompletedTasks();
     }
 
-    public synchronized void reload() {
-        tasks.clear();
-        tasks.addAll(repository.findAll());
-        refreshStatuses();
+    private void loadTasks() {
+        pendingDeletes.clear();
+        List<Task> loaded = repository.findAll();
+        if (!sharedTable) {
+            tasks.replaceAll(loaded);
+        }
+        tasks.values().forEach(Task::markClean);
+        rebuildIndexes();
+        refreshAll();
+        events.reset();
     }
 
-    public synchronized void persist() {
-        repository.saveAll(tasks);
+    private void index(Task task) {
+        deadlines.put(task);
+        schedule.put(task);
+        sorted.put(task);
+        overdue.track(task);
     }
 
-    public synchronized void resetAll() {
-        tasks.clear();
-        persist();
+    private void rebuildIndexes() {
+        deadlines.clear();
+        schedule.clear();
+        sorted.clear();
+        overdue.clear();
+        tasks.values().forEach(this::index);
+    }
+
+    public void persist() {
+        awaitCompletedTasks();
+        mutate(this::persistAll);
+    }
+
+    /**
+     * Waits for the history without the lock held, so reads and edits go on meanwhile.
+     */
+    private void awaitCompletedTasks() {
+        CompletableFuture<List<Task>> pending = read(() -> completedTasks);
+        pending.join();
+    }
+
+    private void persistAll() {
+        // a full save must not drop history; callers wait for it first, and the repository defers the write if
+        // a refresh has started loading it again since
+        if (completedTasks.isDone()) {
+            mergeCompletedTasks(completedTasks, completedTasks.join());
+        }
+        List<Task> all = tasks.toList();
+        long[] versions = versions(all);
+        persistence.submitFullSave(all);
+        pendingDeletes.clear();
+        markClean(all, versions);
+    }
+
+    /**
+     * Hands the repository only the tasks whose version moved since they were last persisted,
+     * plus deletions made since then.
+     */
+    public void persistChanges() {
+        mutate(() -> persistChanges(tasks.values()));
+    }
+
+    /**
+     * Mutations only need to look at the task they touched instead of scanning the whole table.
+     */
+    private void persistChanges(Iterable<Task> candidates) {
+        List<Task> changed = new ArrayList<>();
+        for (Task task : candidates) {
+            if (task.isDirty()) {
+                changed.add(task);
+            }
+        }
+        if (changed.isEmpty() && pendingDeletes.isEmpty()) {
+            return;
+        }
+        long[] versions = versions(changed);
+        persistence.submitChanges(changed, new ArrayList<>(pendingDeletes));
+        pendingDeletes.clear();
+        markClean(changed, versions);
+    }
+
+    /**
+     * The listener is called on the thread that made the change, after the service lock is released,
+     * with one batch per service call.
+     */
+    public void subscribe(TaskEventListener listener) {
+        events.subscribe(listener);
+    }
+
+    /**
+     * Like subscribe, but batches are queued to a dedicated thread for this listener.
+     */
+    public void subscribeAsync(TaskEventListener listener) {
+        events.subscribeAsync(listener);
+    }
+
+    public void unsubscribe(TaskEventListener listener) {
+        events.unsubscribe(listener);
+    }
+
+    /**
+     * Whether the completed history has been merged, so listTasks returns every task; merging it ends with a reset.
+     */
+    public boolean isHistoryLoaded() {
+        return read(() -> completedMerged);
+    }
+
+    public WriteStats writeStats() {
+        return repository.writeStats();
+    }
+
+    private long[] versions(List<Task> list) {
+        long[] versions = new long[list.size()];
+        for (int i = 0; i < versions.length; i++) {
+            versions[i] = list.get(i).getVersion();
+        }
+        return versions;
+    }
+
+    private void markClean(List<Task> list, long[] versions) {
+        for (int i = 0; i < versions.length; i++) {
+            list.get(i).markClean(versions[i]);
+        }
+    }
+
+    /**
+     * Blocks until queued changes have been handed to the repository and the repository is durable.
+     */
+    public void flush() {
+        persistence.flush();
+        repository.flush();
+    }
+
+    public void resetAll() {
+        awaitCompletedTasks();
+        mutate(() -> {
+            completedMerged = true;
+            tasks.clear();
+            rebuildIndexes();
+            events.reset();
+            persistAll();
+        });
+    }
+
+    private <T> T read(Supplier<T> action) {
+        long stamp = lock.readLock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Lock-free first attempt for reads of plain counters; a read that raced a writer is retried under the read lock.
+     * Tree walks never go through here since a torn read of a rotating tree is not safe to follow.
+     */
+    private <T> T readOptimistic(Supplier<T> action) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = action.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException ignored) {
+                // saw a half-applied write
+            }
+        }
+        return read(action);
+    }
+
+    /**
+     * Whatever the action changed is committed as one event batch, even if it threw half-way.
+     */
+    private <T> T write(Supplier<T> action) {
+        long stamp = lock.writeLock();
+        try {
+            return action.get();
+        } finally {
+            events.commit();
+            lock.unlockWrite(stamp);
+            events.deliver();
+        }
+    }
+
+    private void mutate(Runnable action) {
+        write(() -> {
+            action.run();
+            return null;
+        });
     }
 }
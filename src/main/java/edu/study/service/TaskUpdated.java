@@ -0,0 +1,33 @@
+package edu.study.service;
+
+import edu.study.model.Task;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Fields other than the status changed; a status change in the same commit comes as a separate {@link StatusChanged}.
+ */
+public final class TaskUpdated extends TaskEvent {
+    private final Task previous;
+    private final Task task;
+    private final Set<TaskField> changedFields;
+
+    TaskUpdated(long sequence, Task previous, Task task, Set<TaskField> changedFields) {
+        super(sequence, task.getTaskId());
+        this.previous = previous;
+        this.task = task;
+        this.changedFields = Collections.unmodifiableSet(changedFields);
+    }
+
+    public Task getPrevious() {
+        return previous;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public Set<TaskField> getChangedFields() {
+        return changedFields;
+    }
+}
@@ -0,0 +1,143 @@
+package edu.study.service;
+
+import edu.study.model.Task;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Treap of task nodes, one per task id, ordered by a comparator over the nodes' captured keys. Each node keeps a
+ * summary of its subtree (latest end, size, ...) up to date in {@link Node#update()}, which is called bottom-up
+ * whenever its children change. Put and remove are O(log n) expected. Not thread-safe.
+ */
+final class Treap<N extends Treap.Node<N>> {
+    private final Comparator<? super N> order;
+    private final Map<UUID, N> nodes = new HashMap<>();
+    private N root;
+
+    Treap(Comparator<? super N> order) {
+        this.order = order;
+    }
+
+    /**
+     * Adds the node, replacing the one with the same task id.
+     */
+    void put(N node) {
+        remove(node.id);
+        root = insert(root, node);
+        nodes.put(node.id, node);
+    }
+
+    void remove(UUID id) {
+        N node = nodes.remove(id);
+        if (node != null) {
+            root = delete(root, node);
+        }
+    }
+
+    N root() {
+        return root;
+    }
+
+    int size() {
+        return nodes.size();
+    }
+
+    void clear() {
+        nodes.clear();
+        root = null;
+    }
+
+    private N insert(N parent, N node) {
+        if (parent == null) {
+            return node;
+        }
+        if (order.compare(node, parent) < 0) {
+            parent.left = insert(parent.left, node);
+            if (parent.left.rank > parent.rank) {
+                parent = rotateRight(parent);
+            }
+        } else {
+            parent.right = insert(parent.right, node);
+            if (parent.right.rank > parent.rank) {
+                parent = rotateLeft(parent);
+            }
+        }
+        parent.update();
+        return parent;
+    }
+
+    private N delete(N parent, N node) {
+        if (parent == null) {
+            return null;
+        }
+        if (parent == node) {
+            return merge(parent.left, parent.right);
+        }
+        if (order.compare(node, parent) < 0) {
+            parent.left = delete(parent.left, node);
+        } else {
+            parent.right = delete(parent.right, node);
+        }
+        parent.update();
+        return parent;
+    }
+
+    private N merge(N left, N right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.rank > right.rank) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private N rotateRight(N node) {
+        N pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private N rotateLeft(N node) {
+        N pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    /**
+     * Keys must be captured when the node is made, so the node can still be found after the task is edited in place.
+     */
+    abstract static class Node<N extends Node<N>> {
+        final Task task;
+        final UUID id;
+        final int rank = ThreadLocalRandom.current().nextInt();
+        N left;
+        N right;
+
+        Node(Task task) {
+            this.task = task;
+            this.id = task.getTaskId();
+        }
+
+        /**
+         * Recomputes this node's subtree summary from its own key and its children's summaries.
+         */
+        abstract void update();
+    }
+}
@@ -22,8 +22,8 @@ import java.nio.file.Files;
 import java.nio.charset.StandardCharsets;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.Comparator;
 import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -276,16 +276,17 @@ public class SmartTaskWidget {
         List<Task> unscheduled = controller.tasksWithoutSchedule();
         List<Task> scheduled = controller.tasksWithSchedule();
         unscheduledList.setItems(FXCollections.observableArrayList(unscheduled));
-        updateCalendar(scheduled);
+        updateCalendar();
         long doneToday = controller.doneTodayCount();
-        long highRisk = unscheduled.stream().filter(controller::isHighRisk).count()
-                + scheduled.stream().filter(controller::isHighRisk).count();
+        long highRisk = controller.highRiskCount();
+        long remainingHours = (controller.remainingEstimateMinutes() + 59) / 60;
         String base = "今日完成: " + doneToday + " | 高风险: " + highRisk
-                + " | 未排期: " + unscheduled.size() + " | 已排期: " + scheduled.size();
+                + " | 未排期: " + unscheduled.size() + " | 已排期: " + scheduled.size()
+                + " | 剩余预计: " + remainingHours + "h | 推迟: " + controller.postponeCount();
         statsLabel.setText(base);
         updateCurrentButton(scheduled);
         updateWarnings(scheduled);
-        updateUpcomingCard(scheduled, base);
+        updateUpcomingCard(base);
         updateChatContext();
     }
 
@@ -474,7 +475,7 @@ public class SmartTaskWidget {
         return split;
     }
 
-    private void updateCalendar(List<Task> tasks) {
+    private void updateCalendar() {
         calendarBox.getChildren().clear();
         double totalHeight = dayHeight();
         calendarBox.setSpacing(8);
@@ -498,6 +499,10 @@ public class SmartTaskWidget {
         calendarBox.getChildren().add(axisBox);
 
         LocalDate startDay = weekStart;
+        Map<LocalDate, List<Task>> tasksByDay = new HashMap<>();
+        for (Task t : controller.tasksOverlapping(startDay.atStartOfDay(), startDay.plusDays(7).atStartOfDay())) {
+            tasksByDay.computeIfAbsent(t.getStartTime().toLocalDate(), d -> new ArrayList<>()).add(t);
+        }
         for (int i = 0; i < 7; i++) {
             LocalDate day = startDay.plusDays(i);
             VBox column = new VBox(6);
@@ -508,10 +513,7 @@ public class SmartTaskWidget {
             Label header = new Label(day.getDayOfWeek() + "\n" + day);
             header.setStyle("-fx-font-size: 11px; -fx-font-weight: bold;");
 
-            List<Task> dayTasks = tasks.stream()
-                    .filter(t -> t.getStartTime() != null && t.getStartTime().toLocalDate().isEqual(day))
-                    .sorted(Comparator.comparing(Task::getStartTime))
-                    .toList();
+            List<Task> dayTasks = tasksByDay.getOrDefault(day, List.of());
 
             Pane blocks = new Pane();
         blocks.setPrefHeight(totalHeight);
@@ -622,12 +624,7 @@ public class SmartTaskWidget {
                     double y = clamp(event.getY(), 0, totalHeight);
                     LocalTime snapped = snapToSlot(y);
                     LocalDateTime start = LocalDateTime.of(day, snapped);
-                    LocalDateTime oldStart = task.getStartTime();
-                    boolean delayed = oldStart != null && start.isAfter(oldStart);
-                    if (delayed) {
-                        task.incrementPostponeCount();
-                    }
-                    controller.editTask(task.getTaskId(), null, null, null, task.getDeadline(), task.getEstimatedTime(), task.getCourseId(), start);
+                    controller.rescheduleTask(task.getTaskId(), start);
                     success = true;
                     refreshList();
                 }
@@ -725,15 +722,7 @@ public class SmartTaskWidget {
     }
 
     private Task findCurrentTask() {
-        LocalDateTime now = LocalDateTime.now();
-        for (Task t : controller.tasksWithSchedule()) {
-            LocalDateTime start = t.getStartTime();
-            Duration duration = safeDuration(t);
-            if (start != null && !now.isBefore(start) && now.isBefore(start.plus(duration))) {
-                return t;
-            }
-        }
-        return null;
+        return controller.taskActiveAt(LocalDateTime.now()).orElse(null);
     }
 
     private void updateCurrentButton(List<Task> scheduled) {
@@ -757,12 +746,9 @@ public class SmartTaskWidget {
         }
     }
 
-    private void updateUpcomingCard(List<Task> scheduled, String base) {
+    private void updateUpcomingCard(String base) {
         LocalDateTime now = LocalDateTime.now();
-        Task next = scheduled.stream()
-                .filter(t -> t.getStartTime() != null && t.getStartTime().isAfter(now))
-                .min(Comparator.comparing(Task::getStartTime))
-                .orElse(null);
+        Task next = controller.nextStartingAfter(now).orElse(null);
         if (next == null) {
             statsLabel.setText(base + " | 下一任务：无");
             return;
@@ -1118,13 +1104,8 @@ public class SmartTaskWidget {
             if (profile.getGoal() != null) sb.append("目标=").append(profile.getGoal()).append(" ");
             sb.append("\n");
         }
-        List<Task> tasks = controller.tasksWithSchedule();
-        LocalDateTime now = LocalDateTime.now();
-        Task next = tasks.stream()
-                .filter(t -> t.getStartTime() != null && t.getStartTime().isAfter(now))
-                .min(Comparator.comparing(Task::getStartTime))
-                .orElse(null);
-        long unscheduled = controller.tasksWithoutSchedule().size();
+        Task next = controller.nextStartingAfter(LocalDateTime.now()).orElse(null);
+        long unscheduled = controller.unscheduledCount();
         sb.append("未排期: ").append(unscheduled);
         if (next != null) {
             sb.append(" | 下一任务: ").append(next.getTitle())
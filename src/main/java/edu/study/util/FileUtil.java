@@ -13,6 +13,30 @@ public final class FileUtil {
         return Paths.get(System.getProperty("user.home"), ".smart-study", "tasks.json");
     }
 
+    public static Path defaultBinaryStoragePath() {
+        return Paths.get(System.getProperty("user.home"), ".smart-study", "tasks.bin");
+    }
+
+    public static Path defaultRecordStorePath() {
+        return Paths.get(System.getProperty("user.home"), ".smart-study", "tasks.rec");
+    }
+
+    public static Path defaultStringHeapPath() {
+        return Paths.get(System.getProperty("user.home"), ".smart-study", "tasks.heap");
+    }
+
+    public static Path defaultJournalPath() {
+        return Paths.get(System.getProperty("user.home"), ".smart-study", "tasks.journal");
+    }
+
+    public static Path defaultStorageMarkerPath() {
+        return Paths.get(System.getProperty("user.home"), ".smart-study", "storage.properties");
+    }
+
+    public static Path defaultRollupPath() {
+        return Paths.get(System.getProperty("user.home"), ".smart-study", "rollups.json");
+    }
+
     public static void ensureFile(Path path) {
         try {
             if (path.getParent() != null) {
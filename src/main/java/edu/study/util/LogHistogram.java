@@ -0,0 +1,97 @@
+package edu.study.util;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size histogram of non-negative longs with log-spaced buckets, in the manner of HdrHistogram: values below
+ * 2^(subBucketBits + 1) get a bucket each, and every power of two above that is split into 2^subBucketBits buckets,
+ * so any value is known to within a relative error of 2^-subBucketBits. Values above maxValue are counted as
+ * maxValue. Counts may be taken back with a negative add. Not thread-safe.
+ */
+public class LogHistogram {
+    private final int subBucketBits;
+    private final int subBucketCount;
+    private final long maxValue;
+    private final long[] counts;
+    private long total;
+
+    public LogHistogram(long maxValue, int subBucketBits) {
+        if (maxValue < 1 || subBucketBits < 1 || subBucketBits > 16) {
+            throw new IllegalArgumentException("maxValue must be positive and subBucketBits within 1..16");
+        }
+        this.subBucketBits = subBucketBits;
+        this.subBucketCount = 1 << subBucketBits;
+        this.maxValue = maxValue;
+        this.counts = new long[index(maxValue) + 1];
+    }
+
+    public void record(long value) {
+        add(value, 1);
+    }
+
+    /**
+     * Adds count samples of value; a negative count takes samples back out.
+     */
+    public void add(long value, long count) {
+        if (value < 0) {
+            throw new IllegalArgumentException("value must not be negative: " + value);
+        }
+        counts[index(Math.min(value, maxValue))] += count;
+        total += count;
+    }
+
+    public long totalCount() {
+        return total;
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        total = 0;
+    }
+
+    /**
+     * The value at or below which the given percentage (0..100) of samples fall, reported as the middle of its
+     * bucket; 0 when the histogram is empty.
+     */
+    public long valueAtPercentile(double percentile) {
+        if (total <= 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(maxValue, lowestValue(i) + bucketWidth(i) / 2);
+            }
+        }
+        return maxValue;
+    }
+
+    /**
+     * Memory taken by the counts, which is fixed at construction.
+     */
+    public int bucketCount() {
+        return counts.length;
+    }
+
+    private int index(long value) {
+        if (value < 2L * subBucketCount) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - subBucketBits;
+        return (shift + 1) * subBucketCount + (int) (value >>> shift) - subBucketCount;
+    }
+
+    private long lowestValue(int index) {
+        if (index < 2 * subBucketCount) {
+            return index;
+        }
+        int shift = index / subBucketCount - 1;
+        return ((long) (index % subBucketCount) + subBucketCount) << shift;
+    }
+
+    private long bucketWidth(int index) {
+        return index < 2 * subBucketCount ? 1 : 1L << (index / subBucketCount - 1);
+    }
+}
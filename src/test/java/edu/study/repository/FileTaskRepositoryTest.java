@@ -0,0 +1,127 @@
+package edu.study.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.study.model.Priority;
+import edu.study.model.Task;
+import edu.study.model.TaskStatus;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class FileTaskRepositoryTest {
+
+    @Test
+    void writesWaitForHistoryWithoutBlockingTheWriter() {
+        CompletableFuture<List<Task>> history = new CompletableFuture<>();
+        RecordingRepository data = new RecordingRepository(history);
+        FileTaskRepository repository = new FileTaskRepository(data);
+
+        Task open = task("open");
+        repository.save(open);
+        repository.persist();
+        assertTrue(data.saved.isEmpty(), "nothing may be written before the history is merged");
+
+        Task archived = task("archived");
+        history.complete(List.of(archived));
+
+        assertEquals(1, data.saved.size());
+        assertEquals(Set.of(open.getTaskId(), archived.getTaskId()), ids(data.saved.get(0)));
+    }
+
+    @Test
+    void flushWaitsForHistoryAndWritesTheDeferredSnapshot() throws InterruptedException {
+        CompletableFuture<List<Task>> history = new CompletableFuture<>();
+        RecordingRepository data = new RecordingRepository(history);
+        FileTaskRepository repository = new FileTaskRepository(data);
+        Task open = task("open");
+        repository.save(open);
+
+        Task archived = task("archived");
+        Thread loader = new Thread(() -> history.complete(List.of(archived)));
+        loader.start();
+        repository.flush();
+        loader.join();
+
+        assertEquals(Set.of(open.getTaskId(), archived.getTaskId()), ids(data.saved.get(data.saved.size() - 1)));
+    }
+
+    @Test
+    void failedHistoryLoadFallsBackToAFullLoad() {
+        CompletableFuture<List<Task>> history = new CompletableFuture<>();
+        RecordingRepository data = new RecordingRepository(history);
+        Task archived = task("archived");
+        archived.setStatus(TaskStatus.DONE);
+        data.stored.add(archived);
+        FileTaskRepository repository = new FileTaskRepository(data);
+        Task open = task("open");
+        repository.save(open);
+
+        history.completeExceptionally(new IllegalStateException("Failed to read storage file: tasks.json"));
+        repository.flush();
+
+        assertEquals(Set.of(open.getTaskId(), archived.getTaskId()), ids(data.saved.get(data.saved.size() - 1)));
+        assertEquals(Set.of(open.getTaskId(), archived.getTaskId()), ids(repository.findAll()));
+    }
+
+    private static Set<UUID> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getTaskId).collect(Collectors.toSet());
+    }
+
+    private static Task task(String title) {
+        Task task = new Task(title, null, Priority.MEDIUM, null, LocalDateTime.now().plusDays(1), Duration.ofMinutes(30), null);
+        task.setTaskId(UUID.randomUUID());
+        return task;
+    }
+
+    /**
+     * Keeps every snapshot it is given, and hands out history that the test completes by hand.
+     */
+    private static final class RecordingRepository implements DataRepository {
+        final List<List<Task>> saved = new ArrayList<>();
+        final List<Task> stored = new ArrayList<>();
+        private final CompletableFuture<List<Task>> history;
+
+        RecordingRepository(CompletableFuture<List<Task>> history) {
+            this.history = history;
+        }
+
+        @Override
+        public DataStore load() {
+            DataStore store = new DataStore();
+            store.setTasks(new ArrayList<>(stored));
+            return store;
+        }
+
+        @Override
+        public StreamingDataStoreLoader.LoadResult loadStreaming() {
+            return new StreamingDataStoreLoader.LoadResult(new DataStore(), history);
+        }
+
+        @Override
+        public synchronized void save(DataStore store) {
+            saved.add(new ArrayList<>(store.getTasks()));
+        }
+
+        @Override
+        public synchronized void saveGrouped(DataStore store) {
+            save(store);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public CommitStats commitStats() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package edu.study.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import edu.study.model.Priority;
+import edu.study.model.Task;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedTaskRepositoryTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void saveAllDeletesMissingTasksAndRewritesOnlyChangedOnes() {
+        MappedTaskRepository store = open();
+        Task kept = task("kept");
+        Task dropped = task("dropped");
+        Task edited = task("edited");
+        store.saveAll(List.of(kept, dropped, edited));
+
+        edited.setTitle("edited again");
+        long before = store.writeStats().getMutations();
+        store.saveAll(List.of(kept, edited));
+
+        // one delete and one rewrite; the unchanged record is left alone
+        assertEquals(before + 2, store.writeStats().getMutations());
+        store.persist();
+        MappedTaskRepository reopened = open();
+        assertEquals(Set.of(kept.getTaskId(), edited.getTaskId()), ids(reopened.findAll()));
+        assertEquals("edited again", reopened.findById(edited.getTaskId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    void unchangedSaveAllWritesNothing() {
+        MappedTaskRepository store = open();
+        List<Task> tasks = List.of(task("a"), task("b"), task("c"));
+        store.saveAll(tasks);
+        long before = store.writeStats().getBytesWritten();
+
+        store.saveAll(tasks);
+
+        assertEquals(before, store.writeStats().getBytesWritten());
+        assertEquals(3, store.size());
+    }
+
+    private MappedTaskRepository open() {
+        return new MappedTaskRepository(dir.resolve("tasks.rec"), dir.resolve("tasks.heap"));
+    }
+
+    private static Set<UUID> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getTaskId).collect(Collectors.toSet());
+    }
+
+    private static Task task(String title) {
+        Task task = new Task(title, "notes", Priority.HIGH, BASE, BASE.plusDays(2), Duration.ofMinutes(45), "course");
+        task.setTaskId(UUID.randomUUID());
+        return task;
+    }
+}
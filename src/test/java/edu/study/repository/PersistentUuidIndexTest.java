@@ -0,0 +1,105 @@
+package edu.study.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class PersistentUuidIndexTest {
+
+    @Test
+    void matchesHashMapUnderRandomOperations() {
+        Random random = new Random(16);
+        List<UUID> keys = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            keys.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        keys.addAll(collidingKeys(random, 40));
+        PersistentUuidIndex index = PersistentUuidIndex.EMPTY;
+        Map<UUID, Integer> reference = new HashMap<>();
+        for (int op = 0; op < 30_000; op++) {
+            UUID key = keys.get(random.nextInt(keys.size()));
+            if (random.nextInt(3) > 0) {
+                int value = random.nextInt(1_000_000);
+                index = index.plus(key, value);
+                reference.put(key, value);
+            } else {
+                index = index.minus(key);
+                reference.remove(key);
+            }
+            if (op % 1000 == 0) {
+                assertSameMapping(reference, keys, index);
+            }
+        }
+        assertSameMapping(reference, keys, index);
+        for (UUID key : keys) {
+            index = index.minus(key);
+        }
+        assertSameMapping(Map.of(), keys, index);
+    }
+
+    @Test
+    void collisionsSplitAndCollapse() {
+        Random random = new Random(7);
+        List<UUID> colliding = collidingKeys(random, 5);
+        UUID other = new UUID(random.nextLong(), random.nextLong());
+        PersistentUuidIndex index = PersistentUuidIndex.EMPTY.plus(other, 100);
+        for (int i = 0; i < colliding.size(); i++) {
+            index = index.plus(colliding.get(i), i);
+        }
+        for (int i = 0; i < colliding.size(); i++) {
+            assertEquals(i, index.get(colliding.get(i)));
+        }
+        // shrink the collision node down to one leaf, then to nothing, checking the survivors each time
+        for (int removed = 0; removed < colliding.size(); removed++) {
+            index = index.minus(colliding.get(removed));
+            assertEquals(PersistentUuidIndex.MISSING, index.get(colliding.get(removed)));
+            for (int i = removed + 1; i < colliding.size(); i++) {
+                assertEquals(i, index.get(colliding.get(i)));
+            }
+            assertEquals(100, index.get(other));
+        }
+        // the collapsed leaf must still accept a colliding neighbour again
+        index = index.plus(colliding.get(0), 7).plus(colliding.get(1), 8);
+        assertEquals(7, index.get(colliding.get(0)));
+        assertEquals(8, index.get(colliding.get(1)));
+    }
+
+    @Test
+    void unchangedUpdatesReturnTheSameVersion() {
+        UUID key = UUID.randomUUID();
+        PersistentUuidIndex index = PersistentUuidIndex.EMPTY.plus(key, 3);
+        assertSame(index, index.plus(key, 3));
+        assertSame(index, index.minus(UUID.randomUUID()));
+    }
+
+    /**
+     * Distinct ids that share a hash code: UUID.hashCode folds msb ^ lsb, so flipping the same bits in both halves
+     * keeps it.
+     */
+    private static List<UUID> collidingKeys(Random random, int count) {
+        long msb = random.nextLong();
+        long lsb = random.nextLong();
+        List<UUID> keys = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long flip = random.nextLong();
+            UUID key = new UUID(msb ^ flip, lsb ^ flip);
+            assertEquals(keys.isEmpty() ? key.hashCode() : keys.get(0).hashCode(), key.hashCode());
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    private static void assertSameMapping(Map<UUID, Integer> reference, List<UUID> keys, PersistentUuidIndex index) {
+        for (UUID key : keys) {
+            assertEquals(reference.getOrDefault(key, PersistentUuidIndex.MISSING).intValue(), index.get(key),
+                    "key " + key);
+        }
+    }
+}
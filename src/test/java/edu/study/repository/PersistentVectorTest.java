@@ -0,0 +1,90 @@
+package edu.study.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class PersistentVectorTest {
+
+    @Test
+    void pushAndPopAcrossLevelBoundaries() {
+        // 32, 1024 and 32768 are where the trie gains a level on the way up and loses it on the way down
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        List<PersistentVector<Integer>> versions = new ArrayList<>();
+        for (int i = 0; i < 33_000; i++) {
+            versions.add(vector);
+            vector = vector.push(i);
+        }
+        assertContents(count(33_000), vector);
+        for (int size = 33_000; size > 0; size--) {
+            vector = vector.pop();
+            if (size % 997 == 0 || size <= 33 || size == 1025 || size == 32_769) {
+                assertContents(count(size - 1), vector);
+            }
+        }
+        assertEquals(0, vector.size());
+        // older versions are untouched by everything built on them
+        assertContents(count(1024), versions.get(1024));
+        assertContents(count(32), versions.get(32));
+    }
+
+    @Test
+    void matchesArrayListUnderRandomOperations() {
+        Random random = new Random(16);
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        List<Integer> reference = new ArrayList<>();
+        List<PersistentVector<Integer>> kept = new ArrayList<>();
+        List<List<Integer>> keptReference = new ArrayList<>();
+        for (int op = 0; op < 40_000; op++) {
+            int choice = random.nextInt(10);
+            if (choice < 5 || reference.isEmpty()) {
+                int value = random.nextInt();
+                vector = vector.push(value);
+                reference.add(value);
+            } else if (choice < 8) {
+                int index = random.nextInt(reference.size());
+                int value = random.nextInt();
+                vector = vector.set(index, value);
+                reference.set(index, value);
+            } else {
+                vector = vector.pop();
+                reference.remove(reference.size() - 1);
+            }
+            if (op % 4000 == 0) {
+                kept.add(vector);
+                keptReference.add(new ArrayList<>(reference));
+            }
+        }
+        assertContents(reference, vector);
+        for (int i = 0; i < kept.size(); i++) {
+            assertContents(keptReference.get(i), kept.get(i));
+        }
+    }
+
+    @Test
+    void rejectsOutOfRangeAccess() {
+        PersistentVector<Integer> vector = PersistentVector.<Integer>empty().push(1);
+        assertThrows(IndexOutOfBoundsException.class, () -> vector.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> vector.set(-1, 0));
+        assertThrows(IllegalStateException.class, () -> vector.pop().pop());
+    }
+
+    private static List<Integer> count(int size) {
+        List<Integer> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(i);
+        }
+        return values;
+    }
+
+    private static void assertContents(List<Integer> expected, PersistentVector<Integer> vector) {
+        assertEquals(expected.size(), vector.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), vector.get(i), "index " + i);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package edu.study.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.study.model.Course;
+import edu.study.model.Priority;
+import edu.study.model.Task;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SnapshotConverterTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void markerDefaultsUntilSavedThenReadsBack() {
+        Path path = dir.resolve("storage.properties");
+        StorageMarker fresh = new StorageMarker(path, StorageMarker.BINARY, true);
+        assertEquals(StorageMarker.BINARY, fresh.getFormat());
+        assertTrue(fresh.isTasksInRecords());
+
+        fresh.setFormat(StorageMarker.JSON);
+        fresh.setTasksInRecords(false);
+        fresh.save();
+
+        StorageMarker reread = new StorageMarker(path, StorageMarker.BINARY, true);
+        assertEquals(StorageMarker.JSON, reread.getFormat());
+        assertFalse(reread.isTasksInRecords());
+    }
+
+    @Test
+    void binaryEditsSurviveSwitchingBackToJson() {
+        Path json = dir.resolve("tasks.json");
+        Path binary = dir.resolve("tasks.bin");
+        save(new JsonDataRepository(json), task("first"));
+        SnapshotConverter.jsonToBinary(json, binary);
+        Task later = task("later");
+        save(new BinaryDataRepository(binary), task("first"), later);
+
+        SnapshotConverter.binaryToJson(binary, json);
+
+        assertTrue(ids(new JsonDataRepository(json).load().getTasks()).contains(later.getTaskId()));
+    }
+
+    @Test
+    void recordsRoundTripKeepsTasksAndCourses() {
+        JsonDataRepository snapshot = new JsonDataRepository(dir.resolve("tasks.json"));
+        DataStore store = new DataStore();
+        store.getCourses().add(new Course());
+        store.getTasks().add(task("imported"));
+        snapshot.save(store);
+        MappedTaskRepository records = new MappedTaskRepository(dir.resolve("tasks.rec"), dir.resolve("tasks.heap"));
+
+        SnapshotConverter.snapshotToRecords(snapshot, records);
+        Task added = records.save(task("added in mmap mode"));
+        SnapshotConverter.recordsToSnapshot(records, snapshot);
+
+        DataStore exported = snapshot.load();
+        assertEquals(ids(records.findAll()), ids(exported.getTasks()));
+        assertTrue(ids(exported.getTasks()).contains(added.getTaskId()));
+        assertEquals(1, exported.getCourses().size());
+    }
+
+    @Test
+    void foldJournalAppliesAndTruncates() {
+        JsonDataRepository snapshot = new JsonDataRepository(dir.resolve("tasks.json"));
+        Path journalPath = dir.resolve("tasks.journal");
+        TaskJournal journal = new TaskJournal(journalPath);
+        Task journaled = task("journaled");
+        journal.appendPut(journaled);
+
+        SnapshotConverter.foldJournal(snapshot, journal);
+
+        assertEquals(Set.of(journaled.getTaskId()), ids(snapshot.load().getTasks()));
+        assertFalse(Files.exists(journalPath));
+    }
+
+    private static void save(DataRepository repository, Task... tasks) {
+        DataStore store = new DataStore();
+        store.setTasks(new ArrayList<>(List.of(tasks)));
+        repository.save(store);
+    }
+
+    private static Set<UUID> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getTaskId).collect(Collectors.toSet());
+    }
+
+    private static Task task(String title) {
+        Task task = new Task(title, null, Priority.MEDIUM, null, LocalDateTime.now().plusDays(1), Duration.ofMinutes(30), null);
+        task.setTaskId(UUID.randomUUID());
+        return task;
+    }
+}
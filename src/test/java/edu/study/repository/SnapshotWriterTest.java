@@ -0,0 +1,51 @@
+package edu.study.repository;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SnapshotWriterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void failedGroupedCommitIsRetriedWithoutFurtherSubmissions() throws IOException, InterruptedException {
+        // a regular file where the parent directory should be makes every write fail
+        Path blocker = Files.writeString(dir.resolve("blocked"), "");
+        Path target = blocker.resolve("tasks.json");
+        SnapshotWriter writer = new SnapshotWriter(target, Duration.ofMillis(10));
+        byte[] snapshot = {1, 2, 3};
+
+        writer.submit(snapshot);
+        Thread.sleep(50);
+        Files.delete(blocker);
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!Files.exists(target) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(Files.exists(target), "the failed commit was never retried");
+        assertArrayEquals(snapshot, Files.readAllBytes(target));
+        writer.flush();
+    }
+
+    @Test
+    void flushReportsACommitThatStillFails() throws IOException {
+        Path blocker = Files.writeString(dir.resolve("blocked"), "");
+        SnapshotWriter writer = new SnapshotWriter(blocker.resolve("tasks.json"), Duration.ofSeconds(10));
+
+        writer.submit(new byte[]{1});
+
+        assertThrows(IllegalStateException.class, writer::flush);
+        // the snapshot is still pending, so a later flush reports it again
+        assertThrows(IllegalStateException.class, writer::flush);
+    }
+}
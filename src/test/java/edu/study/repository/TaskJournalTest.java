@@ -0,0 +1,104 @@
+package edu.study.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.study.model.Priority;
+import edu.study.model.Task;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TaskJournalTest {
+    private static final String TORN = "{\"op\":\"PUT\",\"taskId\":\"" + UUID.randomUUID() + "\",\"task\":{\"tit";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void tornFirstRecordDoesNotSwallowLaterAppends() throws IOException {
+        Task before = saveInSnapshot();
+        Files.writeString(journalPath(), TORN, StandardCharsets.UTF_8);
+
+        Task after = task("after");
+        open().save(after);
+
+        assertEquals(Set.of(before.getTaskId(), after.getTaskId()), ids(open()));
+    }
+
+    @Test
+    void tornRecordAfterGoodOnesKeepsEverything() throws IOException {
+        Task before = saveInSnapshot();
+        Task journaled = task("journaled");
+        TaskJournal journal = new TaskJournal(journalPath());
+        journal.appendPut(journaled);
+        Files.writeString(journalPath(), TORN, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        Task after = task("after");
+        open().save(after);
+
+        assertEquals(Set.of(before.getTaskId(), journaled.getTaskId(), after.getTaskId()), ids(open()));
+    }
+
+    @Test
+    void replayReportsTornTail() throws IOException {
+        TaskJournal journal = new TaskJournal(journalPath());
+        journal.appendPut(task("whole"));
+        DataStore store = new DataStore();
+        assertEquals(1, journal.replay(store));
+        assertFalse(journal.isTorn());
+
+        Files.writeString(journalPath(), TORN, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        assertEquals(1, journal.replay(new DataStore()));
+        assertTrue(journal.isTorn());
+    }
+
+    @Test
+    void recordWithoutTrailingNewlineCountsAsTorn() throws IOException {
+        TaskJournal journal = new TaskJournal(journalPath());
+        journal.appendPut(task("whole"));
+        String content = Files.readString(journalPath(), StandardCharsets.UTF_8);
+        Files.writeString(journalPath(), content.substring(0, content.length() - 1), StandardCharsets.UTF_8);
+
+        DataStore store = new DataStore();
+        assertEquals(1, journal.replay(store));
+        assertTrue(journal.isTorn());
+        assertEquals(1, store.getTasks().size());
+    }
+
+    private Task saveInSnapshot() {
+        Task task = task("before");
+        DataStore store = new DataStore();
+        store.getTasks().add(task);
+        new JsonDataRepository(dir.resolve("tasks.json")).save(store);
+        return task;
+    }
+
+    private FileTaskRepository open() {
+        return new FileTaskRepository(new JsonDataRepository(dir.resolve("tasks.json")), new TaskJournal(journalPath()));
+    }
+
+    private Path journalPath() {
+        return dir.resolve("tasks.journal");
+    }
+
+    private static Set<UUID> ids(FileTaskRepository repository) {
+        return repository.findAll().stream().map(Task::getTaskId).collect(Collectors.toSet());
+    }
+
+    private static Task task(String title) {
+        Task task = new Task(title, null, Priority.MEDIUM, null, LocalDateTime.now().plusDays(1), Duration.ofMinutes(30), null);
+        task.setTaskId(UUID.randomUUID());
+        return task;
+    }
+}
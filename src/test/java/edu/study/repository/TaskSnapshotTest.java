@@ -0,0 +1,107 @@
+package edu.study.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import edu.study.model.Priority;
+import edu.study.model.Task;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class TaskSnapshotTest {
+
+    @Test
+    void removalKeepsTheOthersInOrder() {
+        List<Task> tasks = tasks(5);
+        TaskSnapshot snapshot = TaskSnapshot.EMPTY;
+        for (Task task : tasks) {
+            snapshot = snapshot.with(task);
+        }
+
+        snapshot = snapshot.without(tasks.get(1).getTaskId());
+
+        assertEquals(List.of(tasks.get(0), tasks.get(2), tasks.get(3), tasks.get(4)), new ArrayList<>(snapshot));
+        assertEquals(tasks.get(2), snapshot.get(1));
+        assertNull(snapshot.find(tasks.get(1).getTaskId()));
+    }
+
+    @Test
+    void matchesArrayListUnderRandomOperations() {
+        Random random = new Random(16);
+        List<Task> pool = tasks(400);
+        TaskSnapshot snapshot = TaskSnapshot.EMPTY;
+        List<Task> reference = new ArrayList<>();
+        for (int op = 0; op < 20_000; op++) {
+            Task task = pool.get(random.nextInt(pool.size()));
+            int at = indexOf(reference, task.getTaskId());
+            int choice = random.nextInt(3);
+            if (choice == 0) {
+                snapshot = snapshot.without(task.getTaskId());
+                if (at >= 0) {
+                    reference.remove(at);
+                }
+            } else {
+                Task version = copy(task);
+                snapshot = snapshot.with(version);
+                if (at >= 0) {
+                    reference.set(at, version);
+                } else {
+                    reference.add(version);
+                }
+            }
+            if (op % 97 == 0) {
+                assertSameTasks(reference, snapshot);
+            }
+        }
+        assertSameTasks(reference, snapshot);
+    }
+
+    @Test
+    void removingUnknownIdReturnsTheSameSnapshot() {
+        TaskSnapshot snapshot = TaskSnapshot.EMPTY.with(tasks(1).get(0));
+        assertSame(snapshot, snapshot.without(UUID.randomUUID()));
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshot.get(1));
+    }
+
+    private static void assertSameTasks(List<Task> reference, TaskSnapshot snapshot) {
+        assertEquals(reference.size(), snapshot.size());
+        assertEquals(reference, new ArrayList<>(snapshot));
+        for (int i = 0; i < reference.size(); i++) {
+            assertSame(reference.get(i), snapshot.get(i));
+            assertSame(reference.get(i), snapshot.find(reference.get(i).getTaskId()));
+        }
+    }
+
+    private static int indexOf(List<Task> tasks, UUID id) {
+        for (int i = 0; i < tasks.size(); i++) {
+            if (tasks.get(i).getTaskId().equals(id)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Task copy(Task task) {
+        Task copy = new Task(task.getTitle(), null, Priority.MEDIUM, null, null, Duration.ofMinutes(30), null);
+        copy.setTaskId(task.getTaskId());
+        return copy;
+    }
+
+    private static List<Task> tasks(int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Task task = new Task("task " + i, null, Priority.MEDIUM, null, LocalDateTime.now().plusDays(1),
+                    Duration.ofMinutes(30), null);
+            task.setTaskId(UUID.randomUUID());
+            tasks.add(task);
+        }
+        return tasks;
+    }
+}
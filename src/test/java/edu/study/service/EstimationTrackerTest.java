@@ -0,0 +1,54 @@
+package edu.study.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import edu.study.model.Priority;
+import edu.study.model.Task;
+import edu.study.model.TaskStatus;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class EstimationTrackerTest {
+    private static final LocalDateTime START = LocalDateTime.of(2026, 2, 3, 9, 0);
+
+    @Test
+    void recalibratingWithUnchangedFactorsKeepsTheSameCalibration() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            tasks.add(done(60, 90 + i % 3));
+        }
+        EstimationTracker tracker = new EstimationTracker(() -> TaskListing.of(tasks));
+        tracker.rebuild();
+        EstimateCalibration first = tracker.calibration();
+        assertNotEquals(EstimateCalibration.NONE, first);
+
+        tracker.rebuild();
+
+        assertSame(first, tracker.calibration());
+    }
+
+    @Test
+    void calibrationsCompareByFactors() {
+        assertEquals(new EstimateCalibration(Double.NaN, Map.of(), Map.of()), EstimateCalibration.NONE);
+        assertEquals(new EstimateCalibration(1.5, Map.of(Priority.HIGH, 2.0), Map.of("math", 0.5)),
+                new EstimateCalibration(1.5, Map.of(Priority.HIGH, 2.0), Map.of("math", 0.5)));
+        assertNotEquals(new EstimateCalibration(1.5, Map.of(), Map.of("math", 0.5)),
+                new EstimateCalibration(1.5, Map.of(), Map.of("math", 0.75)));
+    }
+
+    private static Task done(int estimateMinutes, int actualMinutes) {
+        Task task = new Task("task", null, Priority.MEDIUM, START, START.plusDays(1),
+                Duration.ofMinutes(estimateMinutes), "math");
+        task.setTaskId(UUID.randomUUID());
+        task.setStatus(TaskStatus.DONE);
+        task.setCompletedAt(START.plusMinutes(actualMinutes));
+        return task;
+    }
+}
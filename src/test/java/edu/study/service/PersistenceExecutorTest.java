@@ -0,0 +1,145 @@
+package edu.study.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.study.model.Priority;
+import edu.study.model.Task;
+import edu.study.repository.TaskRepository;
+import edu.study.repository.TaskTable;
+import edu.study.repository.WriteStats;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class PersistenceExecutorTest {
+
+    @Test
+    void failedWriteIsRetriedWithoutFurtherSubmissions() throws InterruptedException {
+        FlakyRepository repository = new FlakyRepository(3);
+        PersistenceExecutor executor = new PersistenceExecutor(repository, 16);
+        Task task = task();
+
+        executor.submitChanges(List.of(task), List.of());
+
+        // 100 + 200 + 400 ms of backoff before the fourth attempt
+        assertTrue(repository.written.await(5, TimeUnit.SECONDS), "the failed write was never retried");
+        assertEquals(4, repository.attempts);
+        assertEquals(List.of(task), repository.saved);
+        executor.flush();
+    }
+
+    @Test
+    void changesSubmittedWhileBackingOffGoOutWithTheRetry() throws InterruptedException {
+        FlakyRepository repository = new FlakyRepository(1);
+        PersistenceExecutor executor = new PersistenceExecutor(repository, 16);
+        Task first = task();
+        Task second = task();
+
+        executor.submitChanges(List.of(first), List.of());
+        executor.submitChanges(List.of(second), List.of());
+
+        assertTrue(repository.written.await(5, TimeUnit.SECONDS));
+        assertTrue(repository.saved.containsAll(List.of(first, second)));
+    }
+
+    @Test
+    void flushRetriesRightAwayAndReportsAFailure() {
+        FlakyRepository repository = new FlakyRepository(Integer.MAX_VALUE);
+        PersistenceExecutor executor = new PersistenceExecutor(repository, 16);
+        executor.submitChanges(List.of(task()), List.of());
+
+        assertThrows(IllegalStateException.class, executor::flush);
+        assertTrue(repository.attempts >= 1);
+    }
+
+    private static Task task() {
+        Task task = new Task("task", null, Priority.MEDIUM, null, LocalDateTime.now().plusDays(1), Duration.ofMinutes(30), null);
+        task.setTaskId(UUID.randomUUID());
+        return task;
+    }
+
+    /**
+     * Fails the first few saveChanges calls, then keeps what it is given.
+     */
+    private static final class FlakyRepository implements TaskRepository {
+        final CountDownLatch written = new CountDownLatch(1);
+        final List<Task> saved = new ArrayList<>();
+        volatile int attempts;
+        private final int failures;
+
+        FlakyRepository(int failures) {
+            this.failures = failures;
+        }
+
+        @Override
+        public synchronized void saveChanges(List<Task> changed, List<UUID> deleted) {
+            if (attempts++ < failures) {
+                throw new IllegalStateException("Failed to write storage file: disk full");
+            }
+            saved.addAll(changed);
+            written.countDown();
+        }
+
+        @Override
+        public List<Task> findAll() {
+            return new ArrayList<>(saved);
+        }
+
+        @Override
+        public CompletableFuture<List<Task>> completedTasks() {
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        @Override
+        public Optional<TaskTable> sharedTable() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Task> findById(UUID id) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Task save(Task task) {
+            saveChanges(List.of(task), List.of());
+            return task;
+        }
+
+        @Override
+        public void saveAll(List<Task> tasks) {
+            saveChanges(tasks, List.of());
+        }
+
+        @Override
+        public boolean delete(UUID id) {
+            return false;
+        }
+
+        @Override
+        public void refresh() {
+        }
+
+        @Override
+        public void persist() {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public WriteStats writeStats() {
+            return new WriteStats(0, 0, 0);
+        }
+    }
+}
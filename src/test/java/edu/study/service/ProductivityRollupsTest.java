@@ -0,0 +1,76 @@
+package edu.study.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import edu.study.model.Priority;
+import edu.study.model.RollupBucket;
+import edu.study.model.RollupPeriod;
+import edu.study.model.Task;
+import edu.study.model.TaskStatus;
+import edu.study.repository.RollupRepository;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ProductivityRollupsTest {
+    private static final LocalDate DAY = LocalDate.of(2026, 2, 3);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void resetsLeaveTheCheckToTheNextRead() {
+        List<Task> tasks = new ArrayList<>(List.of(done(), done()));
+        AtomicInteger listings = new AtomicInteger();
+        ProductivityRollups rollups = new ProductivityRollups(() -> {
+            listings.incrementAndGet();
+            return TaskListing.of(tasks);
+        }, () -> true, null, null);
+
+        for (int sequence = 1; sequence <= 3; sequence++) {
+            rollups.onEvents(new TaskEventBatch(List.of(), sequence, true));
+        }
+        assertEquals(0, listings.get(), "a reset must not scan the tasks on the event thread");
+
+        assertEquals(2, completedOn(rollups));
+        assertEquals(2, completedOn(rollups));
+        assertEquals(1, listings.get());
+    }
+
+    @Test
+    void flushWritesThroughTheExecutor() {
+        RollupRepository repository = new RollupRepository(dir.resolve("rollups.json"));
+        List<Task> tasks = List.of(done(), done(), done());
+        PersistenceExecutor executor = new PersistenceExecutor(null, 4);
+        ProductivityRollups rollups = new ProductivityRollups(() -> TaskListing.of(tasks), () -> true,
+                repository, executor);
+
+        rollups.flush();
+
+        ProductivityRollups reloaded = new ProductivityRollups(() -> TaskListing.of(tasks), () -> true,
+                repository, null);
+        reloaded.load();
+        assertEquals(3, reloaded.buckets(RollupPeriod.DAY, DAY, DAY.plusDays(1)).get(0).getCompleted());
+    }
+
+    private static long completedOn(ProductivityRollups rollups) {
+        List<RollupBucket> buckets = rollups.buckets(RollupPeriod.DAY, DAY, DAY.plusDays(1));
+        return buckets.isEmpty() ? 0 : buckets.get(0).getCompleted();
+    }
+
+    private static Task done() {
+        LocalDateTime start = DAY.atTime(9, 0);
+        Task task = new Task("task", null, Priority.MEDIUM, start, start.plusHours(5), Duration.ofMinutes(60), null);
+        task.setTaskId(UUID.randomUUID());
+        task.setStatus(TaskStatus.DONE);
+        task.setCompletedAt(start.plusMinutes(90));
+        return task;
+    }
+}
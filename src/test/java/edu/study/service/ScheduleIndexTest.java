@@ -0,0 +1,88 @@
+package edu.study.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import edu.study.model.Priority;
+import edu.study.model.Task;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+
+class ScheduleIndexTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final Comparator<Task> BY_START = Comparator.comparing(Task::getStartTime)
+            .thenComparing(Task::getTaskId);
+
+    @Test
+    void matchesBruteForceUnderRandomOperations() {
+        Random random = new Random(10);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        ScheduleIndex index = new ScheduleIndex();
+        Map<UUID, Task> reference = new HashMap<>();
+        for (int op = 0; op < 20_000; op++) {
+            UUID id = ids.get(random.nextInt(ids.size()));
+            if (random.nextInt(4) == 0) {
+                index.remove(id);
+                reference.remove(id);
+            } else {
+                // re-putting an id moves it: the treap deletes the old node and inserts a new one
+                Task task = task(id, random);
+                index.put(task);
+                if (task.getStartTime() != null) {
+                    reference.put(id, task);
+                } else {
+                    reference.remove(id);
+                }
+            }
+            assertEquals(reference.size(), index.size());
+            if (op % 50 == 0) {
+                checkQueries(index, reference, random);
+            }
+        }
+        index.clear();
+        assertEquals(List.of(), index.overlapping(BASE.minusYears(1), BASE.plusYears(1)));
+    }
+
+    private static void checkQueries(ScheduleIndex index, Map<UUID, Task> reference, Random random) {
+        // seconds on the bounds exercise the rounding to whole minutes
+        LocalDateTime from = BASE.plusMinutes(random.nextInt(2400) - 200).plusSeconds(random.nextInt(3) * 20);
+        LocalDateTime to = from.plusMinutes(random.nextInt(300)).plusSeconds(random.nextInt(3) * 20);
+        assertEquals(expected(reference, t -> t.getStartTime().isBefore(to) && end(t).isAfter(from)),
+                index.overlapping(from, to));
+
+        assertEquals(expected(reference, t -> !t.getStartTime().isAfter(from) && end(t).isAfter(from)),
+                index.activeAt(from));
+
+        int limit = random.nextInt(20);
+        List<Task> after = expected(reference, t -> t.getStartTime().isAfter(from));
+        assertEquals(after.subList(0, Math.min(limit, after.size())), index.startingAfter(from, limit));
+    }
+
+    private static List<Task> expected(Map<UUID, Task> reference, Predicate<Task> filter) {
+        return reference.values().stream().filter(filter).sorted(BY_START).toList();
+    }
+
+    private static LocalDateTime end(Task task) {
+        return task.getStartTime().plusMinutes(task.getEstimatedMinutes());
+    }
+
+    private static Task task(UUID id, Random random) {
+        // a narrow range of starts gives plenty of ties, broken by id
+        LocalDateTime start = random.nextInt(10) == 0 ? null : BASE.plusMinutes(random.nextInt(2000));
+        Task task = new Task("task", null, Priority.MEDIUM, start, BASE.plusDays(30),
+                Duration.ofMinutes(random.nextInt(240)), null);
+        task.setTaskId(id);
+        return task;
+    }
+}
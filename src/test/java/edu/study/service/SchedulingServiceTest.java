@@ -0,0 +1,45 @@
+package edu.study.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import edu.study.model.Priority;
+import edu.study.model.Task;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class SchedulingServiceTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    @Test
+    void sortMatchesAStableSortByKey() {
+        SchedulingService scheduling = new SchedulingService();
+        Random random = new Random(12);
+        for (int n : new int[]{0, 1, 2, 37, 1000, SchedulingService.PARALLEL_THRESHOLD + 500}) {
+            List<Task> tasks = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                tasks.add(task(random));
+            }
+            // List.sort is stable, so tasks with equal keys keep their input order
+            List<Task> expected = new ArrayList<>(tasks);
+            expected.sort(Comparator.comparing((Task t) -> SchedulingService.sortKey(t, NOW), Long::compareUnsigned));
+
+            assertEquals(expected, scheduling.sortTasks(tasks, NOW), n + " tasks");
+        }
+    }
+
+    private static Task task(Random random) {
+        // few distinct deadlines and both small and huge estimates, so keys tie and differ in their low bits
+        Priority priority = Priority.values()[random.nextInt(Priority.values().length)];
+        LocalDateTime deadline = random.nextInt(10) == 0 ? null : NOW.plusHours(random.nextInt(12) - 3);
+        long estimate = random.nextBoolean() ? random.nextInt(4) * 30L : random.nextInt(1 << 22);
+        Task task = new Task("task", null, priority, null, deadline, Duration.ofMinutes(estimate), null);
+        task.setTaskId(UUID.randomUUID());
+        return task;
+    }
+}
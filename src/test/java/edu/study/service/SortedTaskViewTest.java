@@ -0,0 +1,77 @@
+package edu.study.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import edu.study.model.Priority;
+import edu.study.model.Task;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class SortedTaskViewTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final Comparator<Task> SCHEDULING_ORDER = Comparator
+            .comparing((Task t) -> -t.getPriority().getWeight())
+            .thenComparing(Task::getDeadline, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Task::getEstimatedMinutes)
+            .thenComparing(Task::getTaskId);
+
+    @Test
+    void matchesBruteForceUnderRandomOperations() {
+        Random random = new Random(14);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        SortedTaskView view = new SortedTaskView();
+        Map<UUID, Task> reference = new HashMap<>();
+        for (int op = 0; op < 20_000; op++) {
+            UUID id = ids.get(random.nextInt(ids.size()));
+            if (random.nextInt(4) == 0) {
+                view.remove(id);
+                reference.remove(id);
+            } else {
+                // re-putting an id moves it: the treap deletes the old node and inserts a new one
+                Task task = task(id, random);
+                view.put(task);
+                reference.put(id, task);
+            }
+            assertEquals(reference.size(), view.size());
+            if (op % 50 == 0) {
+                List<Task> expected = reference.values().stream().sorted(SCHEDULING_ORDER).toList();
+                assertEquals(expected, view.toList());
+                int offset = random.nextInt(expected.size() + 5);
+                int limit = random.nextInt(40);
+                List<Task> page = offset >= expected.size() ? List.of()
+                        : expected.subList(offset, Math.min(expected.size(), offset + limit));
+                assertEquals(page, view.page(offset, limit), "page(" + offset + ", " + limit + ")");
+            }
+        }
+        view.clear();
+        assertEquals(List.of(), view.toList());
+    }
+
+    @Test
+    void negativeOffsetOrLimitGivesNothing() {
+        SortedTaskView view = new SortedTaskView();
+        view.put(task(UUID.randomUUID(), new Random(1)));
+        assertEquals(List.of(), view.page(-1, 5));
+        assertEquals(List.of(), view.page(0, 0));
+    }
+
+    private static Task task(UUID id, Random random) {
+        // few distinct values per key, so every tie-break in the order is exercised
+        Priority priority = Priority.values()[random.nextInt(Priority.values().length)];
+        LocalDateTime deadline = random.nextInt(8) == 0 ? null : BASE.plusHours(random.nextInt(20));
+        Task task = new Task("task", null, priority, null, deadline, Duration.ofMinutes(30L * random.nextInt(4)), null);
+        task.setTaskId(id);
+        return task;
+    }
+}
@@ -0,0 +1,62 @@
+package edu.study.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import edu.study.model.EpochMinutes;
+import edu.study.model.Priority;
+import edu.study.model.Task;
+import edu.study.model.TaskStatus;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class TaskColumnsTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    @Test
+    void riskScanMatchesThePerTaskCheck() {
+        Random random = new Random(21);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            tasks.add(task(random));
+        }
+        TaskColumns columns = new TaskColumns(() -> TaskListing.of(tasks));
+        columns.rebuild();
+        EstimateCalibration calibration = new EstimateCalibration(1.5,
+                Map.of(Priority.HIGH, 2.0), Map.of("math", 0.5));
+        long minute = EpochMinutes.ceil(NOW);
+
+        for (EstimateCalibration each : List.of(EstimateCalibration.NONE, calibration)) {
+            long expected = tasks.stream()
+                    .filter(t -> t.getStatus() != TaskStatus.DONE && t.getDeadline() != null)
+                    .filter(t -> t.getDeadlineEpochMinute() - Math.max(0, each.calibratedMinutes(t)) < minute)
+                    .count();
+            assertEquals(expected, columns.countAtRisk(minute, each));
+        }
+        assertEquals(tasks.stream().filter(t -> !t.getStatus().isTerminal())
+                        .mapToLong(Task::getEstimatedMinutes).sum(),
+                columns.totalEstimateMinutes(TaskStatus.TODO) + columns.totalEstimateMinutes(TaskStatus.DOING)
+                        + columns.totalEstimateMinutes(TaskStatus.OVERDUE));
+        assertEquals(tasks.stream().mapToLong(Task::getPostponeCount).sum(), columns.totalPostpones());
+    }
+
+    private static Task task(Random random) {
+        Priority priority = Priority.values()[random.nextInt(Priority.values().length)];
+        LocalDateTime deadline = random.nextInt(10) == 0 ? null : NOW.plusMinutes(random.nextInt(600) - 120);
+        String course = switch (random.nextInt(3)) {
+            case 0 -> "math";
+            case 1 -> "physics";
+            default -> null;
+        };
+        Task task = new Task("task", null, priority, null, deadline, Duration.ofMinutes(random.nextInt(240)), course);
+        task.setTaskId(UUID.randomUUID());
+        task.setStatus(TaskStatus.values()[random.nextInt(TaskStatus.values().length)]);
+        task.setPostponeCount(random.nextInt(3));
+        return task;
+    }
+}
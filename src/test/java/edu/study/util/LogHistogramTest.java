@@ -0,0 +1,120 @@
+package edu.study.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LogHistogramTest {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final long MAX_VALUE = 1_000_000;
+
+    @Test
+    void smallValuesAreExact() {
+        for (long value = 0; value < 2L << SUB_BUCKET_BITS; value++) {
+            assertEquals(value, single(value));
+        }
+    }
+
+    @Test
+    void everyValueLandsInABucketWithinTheRelativeError() {
+        long previous = -1;
+        for (long value = 0; value <= MAX_VALUE; value += 1 + value / 200) {
+            long reported = single(value);
+            assertTrue(Math.abs(reported - value) <= value >> SUB_BUCKET_BITS,
+                    value + " reported as " + reported);
+            // buckets are ordered: a larger value never reports below a smaller one
+            assertTrue(reported >= previous, value + " reported below the previous value");
+            previous = reported;
+        }
+    }
+
+    @Test
+    void bucketEdgesAroundPowersOfTwo() {
+        for (int power = SUB_BUCKET_BITS + 1; (1L << power) <= MAX_VALUE; power++) {
+            long edge = 1L << power;
+            long width = 1L << (power - SUB_BUCKET_BITS);
+            // the last value below a power of two and the power itself are in neighbouring buckets
+            assertTrue(single(edge - 1) < edge, "bucket below " + edge);
+            assertEquals(edge + width / 2, single(edge), "bucket at " + edge);
+            assertEquals(edge + width / 2, single(edge + width - 1), "top of bucket at " + edge);
+            assertEquals(edge + width + width / 2, single(edge + width), "bucket after " + edge);
+        }
+    }
+
+    @Test
+    void valuesAboveTheMaximumAreCountedAsIt() {
+        LogHistogram histogram = new LogHistogram(MAX_VALUE, SUB_BUCKET_BITS);
+        histogram.record(MAX_VALUE * 50);
+        assertEquals(1, histogram.totalCount());
+        assertTrue(histogram.valueAtPercentile(100) <= MAX_VALUE);
+        assertTrue(histogram.valueAtPercentile(100) >= MAX_VALUE - (MAX_VALUE >> SUB_BUCKET_BITS));
+    }
+
+    @Test
+    void percentilesMatchASortedReferenceUnderAddsAndTakeBacks() {
+        Random random = new Random(25);
+        LogHistogram histogram = new LogHistogram(MAX_VALUE, SUB_BUCKET_BITS);
+        List<Long> reference = new ArrayList<>();
+        for (int op = 0; op < 20_000; op++) {
+            if (!reference.isEmpty() && random.nextInt(3) == 0) {
+                long value = reference.remove(random.nextInt(reference.size()));
+                histogram.add(value, -1);
+            } else {
+                // log-uniform, so every magnitude gets samples
+                long value = (long) Math.pow(MAX_VALUE, random.nextDouble());
+                histogram.record(value);
+                reference.add(value);
+            }
+            if (op % 500 == 0) {
+                checkPercentiles(histogram, reference);
+            }
+        }
+        checkPercentiles(histogram, reference);
+    }
+
+    @Test
+    void emptyAndClearedHistogramsReportZero() {
+        LogHistogram histogram = new LogHistogram(MAX_VALUE, SUB_BUCKET_BITS);
+        assertEquals(0, histogram.valueAtPercentile(50));
+        histogram.record(1234);
+        histogram.clear();
+        assertEquals(0, histogram.totalCount());
+        assertEquals(0, histogram.valueAtPercentile(99));
+        int buckets = histogram.bucketCount();
+        histogram.record(MAX_VALUE);
+        assertEquals(buckets, histogram.bucketCount());
+    }
+
+    @Test
+    void rejectsNegativeValuesAndBadShapes() {
+        LogHistogram histogram = new LogHistogram(MAX_VALUE, SUB_BUCKET_BITS);
+        assertThrows(IllegalArgumentException.class, () -> histogram.record(-1));
+        assertThrows(IllegalArgumentException.class, () -> new LogHistogram(0, SUB_BUCKET_BITS));
+        assertThrows(IllegalArgumentException.class, () -> new LogHistogram(MAX_VALUE, 17));
+    }
+
+    private static void checkPercentiles(LogHistogram histogram, List<Long> reference) {
+        assertEquals(reference.size(), histogram.totalCount());
+        List<Long> sorted = new ArrayList<>(reference);
+        Collections.sort(sorted);
+        for (double percentile : new double[]{0, 1, 25, 50, 75, 90, 99, 99.9, 100}) {
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * sorted.size()));
+            long expected = sorted.get((int) rank - 1);
+            long actual = histogram.valueAtPercentile(percentile);
+            assertTrue(Math.abs(actual - expected) <= expected >> SUB_BUCKET_BITS,
+                    "p" + percentile + ": expected about " + expected + ", got " + actual);
+        }
+    }
+
+    private static long single(long value) {
+        LogHistogram histogram = new LogHistogram(MAX_VALUE, SUB_BUCKET_BITS);
+        histogram.record(value);
+        return histogram.valueAtPercentile(50);
+    }
+}
@@ -0,0 +1,105 @@
+package edu.study.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LongLongHashMapTest {
+
+    @Test
+    void putThatGrowsTheTableKeepsItsValue() {
+        LongLongHashMap map = new LongLongHashMap(1);
+        for (long key = 0; key < 1000; key++) {
+            map.put(key, key * 7);
+        }
+        assertEquals(1000, map.size());
+        for (long key = 0; key < 1000; key++) {
+            assertEquals(key * 7, map.get(key, -1), "key " + key);
+        }
+    }
+
+    @Test
+    void addToThatGrowsTheTableKeepsItsValue() {
+        LongLongHashMap map = new LongLongHashMap(1);
+        for (long key = 0; key < 1000; key++) {
+            assertEquals(key + 1, map.addTo(key << 20, key + 1));
+        }
+        for (long key = 0; key < 1000; key++) {
+            assertEquals(key + 1, map.get(key << 20, -1), "key " + (key << 20));
+        }
+    }
+
+    @Test
+    void matchesHashMapUnderRandomOperations() {
+        Random random = new Random(22);
+        for (int round = 0; round < 20; round++) {
+            LongLongHashMap map = new LongLongHashMap(random.nextInt(4));
+            Map<Long, Long> reference = new HashMap<>();
+            // a narrow key range forces repeated keys; wide, day-like and negative keys exercise probing
+            int range = 1 + random.nextInt(2000);
+            for (int op = 0; op < 5000; op++) {
+                long key = switch (random.nextInt(3)) {
+                    case 0 -> random.nextInt(range);
+                    case 1 -> 19000 + random.nextInt(range);
+                    default -> -random.nextInt(range) * 1024L;
+                };
+                long value = random.nextInt(100) - 50;
+                switch (random.nextInt(10)) {
+                    case 0, 1, 2, 3 -> {
+                        map.put(key, value);
+                        reference.put(key, value);
+                    }
+                    case 4, 5, 6 -> assertEquals(reference.merge(key, value, Long::sum).longValue(),
+                            map.addTo(key, value));
+                    case 7, 8 -> {
+                        assertEquals(reference.getOrDefault(key, Long.MAX_VALUE).longValue(),
+                                map.get(key, Long.MAX_VALUE));
+                        assertEquals(reference.containsKey(key), map.containsKey(key));
+                    }
+                    default -> {
+                        if (random.nextInt(50) == 0) {
+                            map.clear();
+                            reference.clear();
+                        }
+                    }
+                }
+                assertEquals(reference.size(), map.size());
+            }
+            assertSameEntries(reference, map);
+        }
+    }
+
+    @Test
+    void clearedMapIsEmptyAndReusable() {
+        LongLongHashMap map = new LongLongHashMap();
+        for (long key = 0; key < 100; key++) {
+            map.put(key, 1);
+        }
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(5));
+        map.put(5, 2);
+        assertEquals(1, map.size());
+        assertEquals(2, map.get(5, 0));
+    }
+
+    @Test
+    void emptyMarkerIsRejectedAsKey() {
+        LongLongHashMap map = new LongLongHashMap();
+        assertThrows(IllegalArgumentException.class, () -> map.put(Long.MIN_VALUE, 1));
+        assertFalse(map.containsKey(Long.MIN_VALUE));
+        assertEquals(3, map.get(Long.MIN_VALUE, 3));
+    }
+
+    private static void assertSameEntries(Map<Long, Long> reference, LongLongHashMap map) {
+        Map<Long, Long> seen = new HashMap<>();
+        map.forEach((key, value) -> assertEquals(null, seen.put(key, value), "key visited twice: " + key));
+        assertEquals(reference, seen);
+    }
+}